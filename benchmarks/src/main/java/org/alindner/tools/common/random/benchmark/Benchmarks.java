@@ -0,0 +1,34 @@
+package org.alindner.tools.common.random.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all benchmarks in throughput and average time mode with the GC profiler and writes the results as JSON, so two
+ * releases can be compared by diffing their result files.
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar [jmh options]}. The JSON file defaults to {@code jmh-result.json} and
+ * can be changed with {@code -rff}; all other JMH command line options are passed through.
+ */
+public final class Benchmarks {
+	private Benchmarks() {
+	}
+
+	public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+		final CommandLineOptions commandLine = new CommandLineOptions(args);
+		final ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine)
+		                                                          .addProfiler(GCProfiler.class)
+		                                                          .resultFormat(ResultFormatType.JSON)
+		                                                          .result(commandLine.getResult().orElse("jmh-result.json"));
+		if (commandLine.getIncludes().isEmpty()) {
+			options.include(Benchmarks.class.getPackage().getName() + ".*");
+		}
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,42 @@
+package org.alindner.tools.common.random.benchmark;
+
+import org.alindner.tools.common.random.generator.Generator;
+import org.alindner.tools.common.random.generator.IRandomByteGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ASCII tokens of {@link Generator#bytes(Generator.ICharPool)}, written into a reused buffer. The pool with
+ * signs is not ASCII, so it has no byte generator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ByteGeneratorBenchmark {
+	@Param({"alphanumeric", "numbers"})
+	public String pool;
+
+	@Param({"8", "32", "128"})
+	public int length;
+
+	private IRandomByteGenerator generator;
+	private ByteBuffer           buffer;
+
+	@Setup
+	public void setup() {
+		this.generator = Generator.bytes(KeyspaceBenchmark.pool(this.pool));
+		this.buffer = ByteBuffer.allocate(this.length);
+	}
+
+	@Benchmark
+	public ByteBuffer nextInto() {
+		this.buffer.clear();
+		this.generator.nextInto(this.buffer, this.length);
+		return this.buffer;
+	}
+}
@@ -0,0 +1,79 @@
+package org.alindner.tools.common.random.benchmark;
+
+import org.alindner.tools.common.random.generator.Generator;
+import org.alindner.tools.common.random.generator.IRandomStringGenerator;
+import org.alindner.tools.common.random.generator.WeightedCharPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures single strings of every string factory of {@link Generator}, allocating and into a reused buffer: the
+ * pools, their secure variants, weighted chars, a template and the counter based and permuting generators.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratorBenchmark {
+	@Param({
+			"alphanumeric", "alphanumericSigns", "numbers", "unicode",
+			"secureAlphanumeric", "secureAlphanumericSigns", "secureNumbers",
+			"weighted", "template", "randomAccess", "permutation"
+	})
+	public String pool;
+
+	@Param({"8", "32", "128"})
+	public int length;
+
+	private IRandomStringGenerator<String> generator;
+	private char[]                         buffer;
+
+	@Setup
+	public void setup() {
+		this.generator = GeneratorBenchmark.generator(this.pool);
+		this.buffer = new char[this.length];
+	}
+
+	@Benchmark
+	public String next() {
+		return this.generator.next(this.length);
+	}
+
+	@Benchmark
+	public char[] nextInto() {
+		this.generator.nextInto(this.buffer, 0, this.length);
+		return this.buffer;
+	}
+
+	static IRandomStringGenerator<String> generator(final String pool) {
+		switch (pool) {
+			case "alphanumeric":
+				return Generator.alphanumeric();
+			case "alphanumericSigns":
+				return Generator.alphanumericSigns();
+			case "numbers":
+				return Generator.numbers();
+			case "unicode":
+				return Generator.unicode();
+			case "secureAlphanumeric":
+				return Generator.secureAlphanumeric();
+			case "secureAlphanumericSigns":
+				return Generator.secureAlphanumericSigns();
+			case "secureNumbers":
+				return Generator.secureNumbers();
+			case "weighted":
+				return Generator.weighted(WeightedCharPool.ENGLISH);
+			case "template":
+				return Generator.template("[a-f0-9]*");
+			case "randomAccess":
+				return Generator.randomAccess(42);
+			case "permutation":
+				return Generator.permutation(42);
+			default:
+				throw new IllegalArgumentException("Unknown pool " + pool);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package org.alindner.tools.common.random.benchmark;
+
+import org.alindner.tools.common.random.Random;
+import org.alindner.tools.common.random.generator.Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a batch of {@link #count} tokens drawn through the modes of {@link Random.RandomStream} which index the
+ * keyspace of a pool: ranges of a random access generator and the permuted unique streams, sequential and parallel.
+ * Unicode strings have no pool, so they are not measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyspaceBenchmark {
+	@Param({"alphanumeric", "alphanumericSigns", "numbers"})
+	public String pool;
+
+	@Param({"16", "64"})
+	public int length;
+
+	@Param({"10000"})
+	public int count;
+
+	private Random.RandomStream<String> stream;
+	private Random.RandomStream<String> range;
+	private long                        offset;
+
+	@Setup
+	public void setup() {
+		this.stream = Random.build(GeneratorBenchmark.generator(this.pool));
+		this.range = Random.build(Generator.randomAccess(KeyspaceBenchmark.pool(this.pool), 42));
+	}
+
+	@Benchmark
+	public long rangeStream() {
+		final long from = this.next();
+		return this.range.rangeStream(this.length, from, from + this.count).count();
+	}
+
+	@Benchmark
+	public long parallelRangeStream() {
+		final long from = this.next();
+		return this.range.parallelRangeStream(this.length, from, from + this.count).count();
+	}
+
+	@Benchmark
+	public long permutedUniqueStream() {
+		return this.stream.permutedUniqueStream(this.length, this.count).count();
+	}
+
+	@Benchmark
+	public long parallelPermutedUniqueStream() {
+		return this.stream.parallelPermutedUniqueStream(this.length, this.count).count();
+	}
+
+	/**
+	 * moves on to the next range of the run, so every invocation draws new indexes
+	 *
+	 * @return first index of the range
+	 */
+	private synchronized long next() {
+		final long from = this.offset;
+		this.offset += this.count;
+		return from;
+	}
+
+	static Generator.ICharPool pool(final String pool) {
+		switch (pool) {
+			case "alphanumeric":
+				return new Generator.AlphaNumericPool();
+			case "alphanumericSigns":
+				return new Generator.AlphanumericSignsPool();
+			case "numbers":
+				return new Generator.NumbersPool();
+			default:
+				throw new IllegalArgumentException("Unknown pool " + pool);
+		}
+	}
+}
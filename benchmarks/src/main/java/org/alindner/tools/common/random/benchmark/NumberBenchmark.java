@@ -0,0 +1,44 @@
+package org.alindner.tools.common.random.benchmark;
+
+import org.alindner.tools.common.random.generator.Generator;
+import org.alindner.tools.common.random.generator.IRandomStringGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures numbers of {@link Generator#integerNumbers()} with an exact number of digits, one at a time and in
+ * batches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberBenchmark {
+	@Param({"9", "18", "40"})
+	public int length;
+
+	@Param({"64"})
+	public int batch;
+
+	private IRandomStringGenerator<BigInteger> generator;
+
+	@Setup
+	public void setup() {
+		this.generator = Generator.integerNumbers();
+	}
+
+	@Benchmark
+	public BigInteger next() {
+		return this.generator.next(this.length);
+	}
+
+	@Benchmark
+	public List<BigInteger> nextBatch() {
+		return this.generator.nextBatch(this.length, this.batch);
+	}
+}
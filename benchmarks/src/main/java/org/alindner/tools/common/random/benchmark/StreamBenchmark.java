@@ -0,0 +1,59 @@
+package org.alindner.tools.common.random.benchmark;
+
+import org.alindner.tools.common.random.Random;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Measures a batch of {@link #count} tokens drawn through the modes of {@link Random.RandomStream}: sequential or
+ * parallel, unique or not, behind a filter accepting the given share of the tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamBenchmark {
+	@Param({"alphanumeric", "alphanumericSigns", "numbers", "unicode"})
+	public String pool;
+
+	@Param({"16", "64"})
+	public int length;
+
+	@Param({"10000"})
+	public int count;
+
+	@Param({"false", "true"})
+	public boolean parallel;
+
+	@Param({"false", "true"})
+	public boolean unique;
+
+	@Param({"1.0", "0.25", "0.0625"})
+	public double acceptance;
+
+	private Random.RandomStream<String> stream;
+	private Predicate<String>           filter;
+
+	@Setup
+	public void setup() {
+		this.stream = Random.build(GeneratorBenchmark.generator(this.pool));
+		final int threshold = (int) (this.acceptance * 0x10000);
+		this.filter = s -> (s.hashCode() & 0xFFFF) < threshold;
+	}
+
+	@Benchmark
+	public long stream() {
+		if (this.parallel) {
+			return this.unique
+			       ? this.stream.parallelUniqueStream(this.length, this.count, this.filter).count()
+			       : this.stream.parallelStream(this.length, this.count, this.filter).count();
+		}
+		return this.unique
+		       ? this.stream.uniqueStream(this.length, this.count, this.filter).count()
+		       : this.stream.stream(this.length, this.count, this.filter).count();
+	}
+}
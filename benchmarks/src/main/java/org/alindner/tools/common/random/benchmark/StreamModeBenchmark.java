@@ -0,0 +1,57 @@
+package org.alindner.tools.common.random.benchmark;
+
+import org.alindner.tools.common.random.Random;
+import org.alindner.tools.common.random.TokenPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a batch of {@link #count} tokens drawn through asynchronous lists of {@link Random.RandomStream} and a
+ * {@link TokenPool}. The modes which need a pool are measured by {@link KeyspaceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamModeBenchmark {
+	@Param({"alphanumeric", "alphanumericSigns", "numbers", "unicode"})
+	public String pool;
+
+	@Param({"16", "64"})
+	public int length;
+
+	@Param({"10000"})
+	public int count;
+
+	private Random.RandomStream<String> stream;
+	private TokenPool<String>           tokens;
+
+	@Setup
+	public void setup() {
+		this.stream = Random.build(GeneratorBenchmark.generator(this.pool));
+		this.tokens = new TokenPool<>(GeneratorBenchmark.generator(this.pool), this.length, this.count);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.tokens.close();
+	}
+
+	@Benchmark
+	public List<String> listAsync() {
+		return this.stream.listAsync(this.length, this.count).join();
+	}
+
+	@Benchmark
+	public String tokenPool() {
+		String token = null;
+		for (int i = 0; i < this.count; i++) {
+			token = this.tokens.get();
+		}
+		return token;
+	}
+}
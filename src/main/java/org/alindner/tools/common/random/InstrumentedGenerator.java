@@ -0,0 +1,57 @@
+package org.alindner.tools.common.random;
+
+import org.alindner.tools.common.random.generator.IRandomStringGenerator;
+import org.alindner.tools.common.random.metrics.StreamMetrics;
+
+import java.util.List;
+
+/**
+ * Generator which records every generated token and its generation time into {@link StreamMetrics}. Asynchronous
+ * lists use it, as they hand out every token they generate; streams record their tokens when they emit them, see
+ * {@link RandomSpliterator}.
+ *
+ * @param <T> type of the result
+ */
+class InstrumentedGenerator<T> implements IRandomStringGenerator<T> {
+	private final IRandomStringGenerator<T> generator;
+	private final StreamMetrics             metrics;
+
+	InstrumentedGenerator(final IRandomStringGenerator<T> generator, final StreamMetrics metrics) {
+		this.generator = generator;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public T next(final int length) {
+		final long start = System.nanoTime();
+		final T    value = this.generator.next(length);
+		this.metrics.recordGenerated(System.nanoTime() - start);
+		return value;
+	}
+
+	@Override
+	public List<T> nextBatch(final int length, final int count) {
+		final long    start = System.nanoTime();
+		final List<T> batch = this.generator.nextBatch(length, count);
+		this.metrics.recordGenerated(count, System.nanoTime() - start);
+		return batch;
+	}
+
+	@Override
+	public int nextInto(final char[] target, final int offset, final int length) {
+		final long start   = System.nanoTime();
+		final int  written = this.generator.nextInto(target, offset, length);
+		this.metrics.recordGenerated(System.nanoTime() - start);
+		return written;
+	}
+
+	@Override
+	public IRandomStringGenerator<T> withRandom(final java.util.Random random) {
+		return new InstrumentedGenerator<>(this.generator.withRandom(random), this.metrics);
+	}
+
+	@Override
+	public java.util.Random getRandom() {
+		return this.generator.getRandom();
+	}
+}
@@ -0,0 +1,154 @@
+package org.alindner.tools.common.random;
+
+import org.alindner.tools.common.random.generator.AliasTable;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Distribution of the lengths of the strings of a {@link Random.RandomStream}. Lengths are drawn uniformly from a
+ * range or with precomputed probabilities through an {@link AliasTable}, so either way a length costs a single random
+ * draw.
+ */
+public final class LengthDistribution {
+	private final int        min;
+	private final int        max;
+	private final AliasTable table;
+
+	private LengthDistribution(final int min, final int max, final AliasTable table) {
+		if (min < 0 || min > max) {
+			throw new IllegalArgumentException("Invalid length range " + min + ".." + max);
+		}
+		this.min = min;
+		this.max = max;
+		this.table = table;
+	}
+
+	/**
+	 * every string has the same length
+	 *
+	 * @param length length
+	 *
+	 * @return distribution
+	 */
+	public static LengthDistribution fixed(final int length) {
+		return new LengthDistribution(length, length, null);
+	}
+
+	/**
+	 * every length from {@code min} to {@code max}, both inclusive, is equally likely
+	 *
+	 * @param min shortest length
+	 * @param max longest length
+	 *
+	 * @return distribution
+	 *
+	 * @throws IllegalArgumentException if {@code min} is negative or greater than {@code max}
+	 */
+	public static LengthDistribution uniform(final int min, final int max) {
+		return new LengthDistribution(min, max, null);
+	}
+
+	/**
+	 * length {@code min + k} has a probability proportional to {@code 1 / (k + 1)^exponent}, so short strings are
+	 * frequent and long ones rare, like the words of a text
+	 *
+	 * @param min      shortest and most frequent length
+	 * @param max      longest length
+	 * @param exponent skew, {@code 1} for the classic Zipf law, {@code 0} for a uniform distribution
+	 *
+	 * @return distribution
+	 *
+	 * @throws IllegalArgumentException if the range is invalid or the exponent is negative
+	 */
+	public static LengthDistribution zipf(final int min, final int max, final double exponent) {
+		if (!(exponent >= 0) || Double.isInfinite(exponent)) {
+			throw new IllegalArgumentException("Invalid exponent " + exponent);
+		}
+		if (min < 0 || min > max) {
+			throw new IllegalArgumentException("Invalid length range " + min + ".." + max);
+		}
+		final double[] weights = new double[max - min + 1];
+		for (int k = 0; k < weights.length; k++) {
+			weights[k] = Math.pow(k + 1, -exponent);
+		}
+		return new LengthDistribution(min, max, new AliasTable(weights));
+	}
+
+	/**
+	 * length {@code min + k} has a probability proportional to {@code weights[k]}
+	 *
+	 * @param min     shortest length
+	 * @param weights relative weight of each length
+	 *
+	 * @return distribution
+	 *
+	 * @throws IllegalArgumentException if {@code min} is negative or the weights are invalid
+	 */
+	public static LengthDistribution histogram(final int min, final double... weights) {
+		if (min < 0 || weights.length == 0) {
+			throw new IllegalArgumentException("Invalid histogram");
+		}
+		return new LengthDistribution(min, min + weights.length - 1, new AliasTable(weights));
+	}
+
+	/**
+	 * every length has a probability proportional to its weight, lengths without a weight never occur
+	 *
+	 * @param weights relative weight by length
+	 *
+	 * @return distribution
+	 *
+	 * @throws IllegalArgumentException if there is no weight, a length is negative or the weights are invalid
+	 */
+	public static LengthDistribution histogram(final Map<Integer, ? extends Number> weights) {
+		if (weights.isEmpty()) {
+			throw new IllegalArgumentException("Invalid histogram");
+		}
+		final TreeMap<Integer, ? extends Number> sorted = new TreeMap<>(weights);
+		final int                                min    = sorted.firstKey();
+		final double[]                           dense  = new double[sorted.lastKey() - min + 1];
+		sorted.forEach((length, weight) -> dense[length - min] = weight.doubleValue());
+		return LengthDistribution.histogram(min, dense);
+	}
+
+	/**
+	 * draw a length
+	 *
+	 * @param random random generator
+	 *
+	 * @return length in {@code [min, max]}
+	 */
+	public int next(final java.util.Random random) {
+		if (this.table != null) {
+			return this.min + this.table.next(random);
+		}
+		return this.min == this.max ? this.min : this.min + random.nextInt(this.max - this.min + 1);
+	}
+
+	/**
+	 * @return shortest possible length
+	 */
+	public int getMin() {
+		return this.min;
+	}
+
+	/**
+	 * @return longest possible length
+	 */
+	public int getMax() {
+		return this.max;
+	}
+
+	/**
+	 * @return whether every string has the same length
+	 */
+	public boolean isFixed() {
+		return this.min == this.max;
+	}
+
+	@Override
+	public String toString() {
+		return "LengthDistribution[" + this.min + ".." + this.max + (this.table == null ? "" : ", " + this.table) + "]";
+	}
+}
@@ -1,13 +1,37 @@
 package org.alindner.tools.common.random;
 
 import org.alindner.tools.common.random.generator.Generator;
+import org.alindner.tools.common.random.generator.IRandomAccessGenerator;
+import org.alindner.tools.common.random.generator.IPooledGenerator;
 import org.alindner.tools.common.random.generator.IRandomStringGenerator;
+import org.alindner.tools.common.random.generator.PermutationStringGenerator;
+import org.alindner.tools.common.random.generator.RandomNumberGenerator;
+import org.alindner.tools.common.random.generator.RandomStringGenerator;
+import org.alindner.tools.common.random.generator.WeightedCharPool;
+import org.alindner.tools.common.random.metrics.StreamMetrics;
+import org.alindner.tools.common.random.source.Platform;
+import org.alindner.tools.common.random.source.RandomSource;
+import org.alindner.tools.common.random.unique.BlockedBloomFilter;
+import org.alindner.tools.common.random.unique.IUniquenessStore;
+import org.alindner.tools.common.random.unique.PackedTokenSet;
 
+import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This class is a {@link Stream} based implementation for random string generation.
@@ -19,88 +43,252 @@ public class Random {
 	 * @param <T> type of the result
 	 */
 	public static class RandomStream<T> {
+		/**
+		 * number of strings per task of {@link #listAsync(int, int, Executor)}
+		 */
+		public static final int ASYNC_BATCH_SIZE = 4096;
+
 		private final IRandomStringGenerator<T> generator;
+		private final IRandomStringGenerator<T> source;
+		private final StreamMetrics             metrics;
+		private final RandomSource              splits;
 
 		public RandomStream(final IRandomStringGenerator<T> generator) {
+			this(generator, null, null);
+		}
+
+		private RandomStream(final IRandomStringGenerator<T> generator, final StreamMetrics metrics, final RandomSource splits) {
 			this.generator = generator;
+			this.metrics = metrics;
+			this.splits = splits;
+			this.source = metrics == null ? generator : new InstrumentedGenerator<>(generator, metrics);
+		}
+
+		/**
+		 * create a copy of this stream builder whose streams record generated, rejected and duplicate tokens and the
+		 * generation times into {@code metrics}. Streams of builders without metrics are not instrumented at all.
+		 *
+		 * @param metrics metrics, may be shared between builders
+		 *
+		 * @return instrumented stream builder
+		 */
+		public RandomStream<T> instrumented(final StreamMetrics metrics) {
+			return new RandomStream<>(this.generator, Objects.requireNonNull(metrics), this.splits);
+		}
+
+		/**
+		 * create a copy of this stream builder whose parallel streams and asynchronous lists derive the random states
+		 * of their workers from {@code splits}, e.g. a {@code SplittableGenerator} adapted by
+		 * {@link RandomSource#ofGenerator(Object)}. By default a SplitMix64 with a random seed is used.
+		 *
+		 * @param splits random source, split once per stream
+		 *
+		 * @return stream builder
+		 */
+		public RandomStream<T> splitting(final RandomSource splits) {
+			return new RandomStream<>(this.generator, this.metrics, Objects.requireNonNull(splits));
 		}
 
 
 		public Stream<T> stream() {
-			return Stream.generate(() -> this.generator.next(5))
-			             .unordered();
+			return this.sequentialSource(LengthDistribution.fixed(5));
 		}
 
 		public Stream<T> stream(final int length) {
 			Random.checkLength(length);
-			return Stream.generate(() -> this.generator.next(length))
-			             .unordered();
+			return this.sequentialSource(LengthDistribution.fixed(length));
 		}
 
 		public Stream<T> stream(final int length, final int limit) {
 			Random.checkLength(length);
-			return Stream.generate(() -> this.generator.next(length))
-			             .limit(limit);
+			return StreamSupport.stream(RandomSpliterator.sequential(this.generator, LengthDistribution.fixed(length), this.metrics, limit), false);
 
 		}
 
 		public Stream<T> stream(final int length, final int limit, final Predicate<T> filter) {
 			Random.checkLength(length);
-			return Stream.generate(() -> this.generator.next(length))
-			             .filter(filter)
-			             .limit(limit);
+			return this.sequentialSource(LengthDistribution.fixed(length))
+			           .filter(this.rejecting(filter))
+			           .limit(limit);
 
 		}
 
 		public Stream<T> uniqueStream() {
-			return this.stream()
-			           .distinct();
+			return this.unique(this.stream(), 5, 0);
 		}
 
 		public Stream<T> uniqueStream(final int length, final int limit) {
 			Random.checkLength(length);
-			return this.stream(length)
-			           .distinct()
+			return this.unique(this.stream(length), length, limit)
 			           .limit(limit);
 		}
 
 		public Stream<T> uniqueStream(final int length, final int limit, final Predicate<T> filter) {
+			Random.checkLength(length);
+			return this.unique(this.stream(length).filter(this.rejecting(filter)), length, limit)
+			           .limit(limit);
+		}
+
+		/**
+		 * create a stream of unique strings which remembers the strings in {@code store}, e.g. an off heap
+		 * {@link PackedTokenSet}
+		 *
+		 * @param length length of each random string
+		 * @param limit  number of strings
+		 * @param store  store of the strings seen so far
+		 *
+		 * @return stream of unique strings
+		 */
+		public Stream<T> uniqueStream(final int length, final int limit, final IUniquenessStore<? super T> store) {
 			Random.checkLength(length);
 			return this.stream(length)
-			           .filter(filter)
-			           .distinct()
+			           .filter(this.dropping(store::add))
 			           .limit(limit);
 		}
 
-		public Stream<T> parallelStream(final int length, final int limit) {
+		/**
+		 * create a stream of unique strings which drops duplicates with a {@link BlockedBloomFilter} sized for
+		 * {@code limit} strings, a few bits per string. No string is emitted twice, but about
+		 * {@code falsePositiveRate} of the fresh strings are dropped as well. To watch the fill and error of the
+		 * filter, create it and pass it to {@link #uniqueStream(int, int, IUniquenessStore)} instead.
+		 *
+		 * @param length            length of each random string
+		 * @param limit             number of strings
+		 * @param falsePositiveRate target rate of fresh strings taken for duplicates, e.g. {@code 0.01}
+		 *
+		 * @return stream of unique strings
+		 *
+		 * @throws IllegalArgumentException if the rate is not in {@code (0, 1)}
+		 */
+		public Stream<T> uniqueStream(final int length, final int limit, final double falsePositiveRate) {
 			Random.checkLength(length);
+			final BlockedBloomFilter filter = new BlockedBloomFilter(limit, falsePositiveRate);
 			return this.stream(length)
-			           .parallel()
+			           .filter(this.dropping(token -> filter.add(java.lang.String.valueOf(token))))
 			           .limit(limit);
 		}
 
+		public Stream<T> parallelStream(final int length, final int limit) {
+			Random.checkLength(length);
+			return StreamSupport.stream(RandomSpliterator.sized(this.generator, LengthDistribution.fixed(length), this.metrics, limit, this.splitRoot()), true);
+		}
+
 		public Stream<T> parallelStream(final int length, final int limit, final Predicate<T> filter) {
 			Random.checkLength(length);
-			return this.stream(length)
-			           .parallel()
-			           .filter(filter)
+			return this.parallelSource(LengthDistribution.fixed(length))
+			           .filter(this.rejecting(filter))
 			           .limit(limit);
 		}
 
 		public Stream<T> parallelUniqueStream(final int length, final int count) {
 			Random.checkLength(length);
-			return this.stream(length)
-			           .parallel()
-			           .distinct()
+			return this.unique(this.parallelSource(LengthDistribution.fixed(length)), length, count)
 			           .limit(count);
 		}
 
 		public Stream<T> parallelUniqueStream(final int length, final int count, final Predicate<T> filter) {
 			Random.checkLength(length);
-			return this.stream(length)
-			           .parallel()
-			           .distinct()
-			           .filter(filter)
+			return this.unique(this.parallelSource(LengthDistribution.fixed(length)), length, count)
+			           .filter(this.rejecting(filter))
+			           .limit(count);
+		}
+
+		/**
+		 * create a parallel stream of unique strings which remembers the strings in {@code store}. The store has to
+		 * be thread safe.
+		 *
+		 * @param length length of each random string
+		 * @param count  number of strings
+		 * @param store  store of the strings seen so far
+		 *
+		 * @return parallel stream of unique strings
+		 */
+		public Stream<T> parallelUniqueStream(final int length, final int count, final IUniquenessStore<? super T> store) {
+			Random.checkLength(length);
+			return this.parallelSource(LengthDistribution.fixed(length))
+			           .filter(this.dropping(store::add))
+			           .limit(count);
+		}
+
+		/**
+		 * create a stream of {@code limit} strings whose lengths are drawn from {@code lengths}. The strings are
+		 * generated in batches like those of a fixed length, e.g. {@code stream(LengthDistribution.zipf(4, 40, 1), n)}
+		 * for word like keys.
+		 *
+		 * @param lengths distribution of the lengths, its minimum has to be at least 2
+		 * @param limit   number of strings
+		 *
+		 * @return stream of strings
+		 */
+		public Stream<T> stream(final LengthDistribution lengths, final int limit) {
+			Random.checkLength(lengths.getMin());
+			return StreamSupport.stream(RandomSpliterator.sequential(this.generator, lengths, this.metrics, limit), false);
+		}
+
+		/**
+		 * create a stream of {@code limit} unique strings whose lengths are drawn from {@code lengths}
+		 *
+		 * @param lengths distribution of the lengths, its minimum has to be at least 2
+		 * @param limit   number of strings
+		 *
+		 * @return stream of unique strings
+		 *
+		 * @see #stream(LengthDistribution, int)
+		 */
+		public Stream<T> uniqueStream(final LengthDistribution lengths, final int limit) {
+			Random.checkLength(lengths.getMin());
+			return this.unique(this.sequentialSource(lengths), lengths.getMax(), limit)
+			           .limit(limit);
+		}
+
+		/**
+		 * create a parallel stream of {@code limit} strings whose lengths are drawn from {@code lengths}
+		 *
+		 * @param lengths distribution of the lengths, its minimum has to be at least 2
+		 * @param limit   number of strings
+		 *
+		 * @return parallel stream of strings
+		 *
+		 * @see #stream(LengthDistribution, int)
+		 */
+		public Stream<T> parallelStream(final LengthDistribution lengths, final int limit) {
+			Random.checkLength(lengths.getMin());
+			return StreamSupport.stream(RandomSpliterator.sized(this.generator, lengths, this.metrics, limit, this.splitRoot()), true);
+		}
+
+		/**
+		 * create a parallel stream of {@code count} unique strings whose lengths are drawn from {@code lengths}
+		 *
+		 * @param lengths distribution of the lengths, its minimum has to be at least 2
+		 * @param count   number of strings
+		 *
+		 * @return parallel stream of unique strings
+		 *
+		 * @see #stream(LengthDistribution, int)
+		 */
+		public Stream<T> parallelUniqueStream(final LengthDistribution lengths, final int count) {
+			Random.checkLength(lengths.getMin());
+			return this.unique(this.parallelSource(lengths), lengths.getMax(), count)
+			           .limit(count);
+		}
+
+		/**
+		 * parallel version of {@link #uniqueStream(int, int, double)}, the filter is shared lock free between the
+		 * workers
+		 *
+		 * @param length            length of each random string
+		 * @param count             number of strings
+		 * @param falsePositiveRate target rate of fresh strings taken for duplicates, e.g. {@code 0.01}
+		 *
+		 * @return parallel stream of unique strings
+		 *
+		 * @throws IllegalArgumentException if the rate is not in {@code (0, 1)}
+		 */
+		public Stream<T> parallelUniqueStream(final int length, final int count, final double falsePositiveRate) {
+			Random.checkLength(length);
+			final BlockedBloomFilter filter = new BlockedBloomFilter(count, falsePositiveRate);
+			return this.parallelSource(LengthDistribution.fixed(length))
+			           .filter(this.dropping(token -> filter.add(java.lang.String.valueOf(token))))
 			           .limit(count);
 		}
 
@@ -108,6 +296,447 @@ public class Random {
 			return this.stream(length, count, filter).collect(Collectors.toList());
 
 		}
+
+		/**
+		 * generate {@code count} strings asynchronously in batches of {@value #ASYNC_BATCH_SIZE} strings, on virtual
+		 * threads if the runtime has them and on the common fork join pool otherwise
+		 *
+		 * @param length length of each random string
+		 * @param count  number of strings
+		 *
+		 * @return future list of the strings
+		 *
+		 * @see Platform#asyncExecutor()
+		 */
+		public CompletableFuture<List<T>> listAsync(final int length, final int count) {
+			return this.listAsync(length, count, Platform.asyncExecutor());
+		}
+
+		/**
+		 * generate {@code count} strings on {@code executor} in batches of {@value #ASYNC_BATCH_SIZE} strings
+		 *
+		 * @param length   length of each random string
+		 * @param count    number of strings
+		 * @param executor executor running the batches, e.g. a thread per task executor
+		 *
+		 * @return future list of the strings
+		 *
+		 * @see #listAsync(int, int, Executor, int)
+		 */
+		public CompletableFuture<List<T>> listAsync(final int length, final int count, final Executor executor) {
+			return this.listAsync(length, count, executor, RandomStream.ASYNC_BATCH_SIZE);
+		}
+
+		/**
+		 * generate {@code count} strings on {@code executor}, without blocking the caller or using the common fork
+		 * join pool. Every batch is a task of its own with a generator bound to a split random state, the batches are
+		 * merged in order once all are done. The batches never block, so they run as well on platform threads as on a
+		 * virtual thread per task executor.
+		 *
+		 * @param length    length of each random string
+		 * @param count     number of strings
+		 * @param executor  executor running the batches
+		 * @param batchSize number of strings per task
+		 *
+		 * @return future list of the strings, completed exceptionally if a batch fails
+		 *
+		 * @throws IllegalArgumentException if count is negative or batchSize lower 1
+		 */
+		public CompletableFuture<List<T>> listAsync(final int length, final int count, final Executor executor, final int batchSize) {
+			Random.checkLength(length);
+			if (count < 0 || batchSize < 1) {
+				throw new IllegalArgumentException("Invalid count " + count + " or batch size " + batchSize);
+			}
+			Objects.requireNonNull(executor);
+			final RandomSource                     random  = this.splitRoot();
+			final List<CompletableFuture<List<T>>> batches = new ArrayList<>(count / batchSize + 1);
+			for (int from = 0; from < count; from += batchSize) {
+				final int                       size      = Math.min(batchSize, count - from);
+				final IRandomStringGenerator<T> generator = this.source.withRandom(random.split());
+				batches.add(CompletableFuture.supplyAsync(() -> generator.nextBatch(length, size), executor));
+			}
+			return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0]))
+			                        .thenApply(done -> {
+				                        final List<T> list = new ArrayList<>(count);
+				                        batches.forEach(batch -> list.addAll(batch.join()));
+				                        return list;
+			                        });
+		}
+
+		/**
+		 * create a stream of strings which are unique by construction: the strings are a keyed permutation of the
+		 * keyspace of the pool, so no seen strings have to be remembered. If the generator is a
+		 * {@link PermutationStringGenerator} its seed is used, otherwise a key drawn from the random of the generator,
+		 * so the strings of a secure generator stay secure and those of a seeded generator are reproducible.
+		 *
+		 * @param length length of each random string
+		 * @param limit  number of strings
+		 *
+		 * @return stream of unique strings
+		 *
+		 * @throws IllegalStateException    if the generator is not an {@link IPooledGenerator}
+		 * @throws IllegalArgumentException if the keyspace has less than {@code limit} strings or the pool of the
+		 *                                  generator is weighted
+		 */
+		public Stream<T> permutedUniqueStream(final int length, final long limit) {
+			Random.checkLength(length);
+			return this.permutedRange(this.permutationGenerator(), length, 0, limit);
+		}
+
+		/**
+		 * parallel version of {@link #permutedUniqueStream(int, long)}, the counter range is split between the
+		 * workers. It needs constant memory, no matter how many strings are generated.
+		 *
+		 * @param length length of each random string
+		 * @param limit  number of strings
+		 *
+		 * @return parallel stream of unique strings
+		 *
+		 * @throws IllegalStateException    if the generator is not an {@link IPooledGenerator}
+		 * @throws IllegalArgumentException if the keyspace has less than {@code limit} strings or the pool of the
+		 *                                  generator is weighted
+		 */
+		public Stream<T> parallelPermutedUniqueStream(final int length, final long limit) {
+			return this.permutedUniqueStream(length, limit).parallel();
+		}
+
+		/**
+		 * create a stream of strings which are unique across a cluster without any coordination: the keyspace of the
+		 * pool is permuted with {@code seed} and split into {@code nodes} disjoint partitions, and this stream draws
+		 * from partition {@code node} only. Every node has to use the same pool, length, seed and number of nodes and
+		 * its own node id. The stream starts at the beginning of the partition, so a node which restarts or opens a
+		 * second stream has to continue with {@link #partitionedUniqueStream(int, long, long, long, int, int)}.
+		 *
+		 * @param length length of each random string
+		 * @param limit  number of strings
+		 * @param seed   key of the permutation, shared by all nodes
+		 * @param node   id of this node, starting at zero
+		 * @param nodes  number of nodes
+		 *
+		 * @return stream of unique strings
+		 *
+		 * @throws IllegalStateException    if the generator is not an {@link IPooledGenerator}
+		 * @throws IllegalArgumentException if the node is invalid, its partition has less than {@code limit}
+		 *                                  strings or the pool of the generator is weighted
+		 * @see PermutationStringGenerator#partition(int, int)
+		 */
+		public Stream<T> partitionedUniqueStream(final int length, final long limit, final long seed, final int node, final int nodes) {
+			return this.partitionedUniqueStream(length, 0, limit, seed, node, nodes);
+		}
+
+		/**
+		 * continue the partition of a node at {@code from}, see {@link #partitionedUniqueStream(int, long, long, int,
+		 * int)}. A partition is always issued in the same order, so the node has to persist how many strings it has
+		 * taken, e.g. along with the tokens it issued, and pass that number as {@code from} after a restart; a stream
+		 * started at an offset which was not persisted issues the same strings again.
+		 *
+		 * @param length length of each random string
+		 * @param from   number of strings of the partition which were already taken
+		 * @param limit  number of strings
+		 * @param seed   key of the permutation, shared by all nodes
+		 * @param node   id of this node, starting at zero
+		 * @param nodes  number of nodes
+		 *
+		 * @return stream of unique strings
+		 *
+		 * @throws IllegalStateException    if the generator is not an {@link IPooledGenerator}
+		 * @throws IllegalArgumentException if the node or the offset is invalid, its partition has less than
+		 *                                  {@code from + limit} strings or the pool of the generator is weighted
+		 */
+		public Stream<T> partitionedUniqueStream(final int length, final long from, final long limit, final long seed, final int node, final int nodes) {
+			if (!(this.generator instanceof IPooledGenerator)) {
+				throw new IllegalStateException("Partitioned streams require an IPooledGenerator");
+			}
+			Random.checkLength(length);
+			final PermutationStringGenerator generator = Generator.permutation(((IPooledGenerator) this.generator).getPool(), seed)
+			                                                      .partition(node, nodes);
+			return this.permutedRange(generator, length, from, limit);
+		}
+
+		/**
+		 * parallel version of {@link #partitionedUniqueStream(int, long, long, int, int)}
+		 *
+		 * @param length length of each random string
+		 * @param limit  number of strings
+		 * @param seed   key of the permutation, shared by all nodes
+		 * @param node   id of this node, starting at zero
+		 * @param nodes  number of nodes
+		 *
+		 * @return parallel stream of unique strings
+		 *
+		 * @throws IllegalStateException    if the generator is not an {@link IPooledGenerator}
+		 * @throws IllegalArgumentException if the node is invalid, its partition has less than {@code limit}
+		 *                                  strings or the pool of the generator is weighted
+		 */
+		public Stream<T> parallelPartitionedUniqueStream(final int length, final long limit, final long seed, final int node, final int nodes) {
+			return this.partitionedUniqueStream(length, limit, seed, node, nodes).parallel();
+		}
+
+		/**
+		 * parallel version of {@link #partitionedUniqueStream(int, long, long, long, int, int)}
+		 *
+		 * @param length length of each random string
+		 * @param from   number of strings of the partition which were already taken
+		 * @param limit  number of strings
+		 * @param seed   key of the permutation, shared by all nodes
+		 * @param node   id of this node, starting at zero
+		 * @param nodes  number of nodes
+		 *
+		 * @return parallel stream of unique strings
+		 *
+		 * @throws IllegalStateException    if the generator is not an {@link IPooledGenerator}
+		 * @throws IllegalArgumentException if the node or the offset is invalid, its partition has less than
+		 *                                  {@code from + limit} strings or the pool of the generator is weighted
+		 */
+		public Stream<T> parallelPartitionedUniqueStream(final int length, final long from, final long limit, final long seed, final int node, final int nodes) {
+			return this.partitionedUniqueStream(length, from, limit, seed, node, nodes).parallel();
+		}
+
+		/**
+		 * provides the strings {@code from} (inclusive) to {@code to} (exclusive) of a random access run. Every slice of
+		 * the run can be generated on its own, e.g. by different nodes.
+		 *
+		 * @param length length of each random string
+		 * @param from   index of the first string
+		 * @param to     index after the last string
+		 *
+		 * @return ordered stream of {@code to - from} strings
+		 *
+		 * @throws IllegalStateException if the generator is not an {@link IRandomAccessGenerator}
+		 */
+		public Stream<T> rangeStream(final int length, final long from, final long to) {
+			Random.checkLength(length);
+			final IRandomAccessGenerator<T> generator = this.randomAccessGenerator();
+			if (this.metrics != null) {
+				return LongStream.range(from, to)
+				                 .mapToObj(index -> {
+					                 final long start = System.nanoTime();
+					                 final T    value = generator.at(index, length);
+					                 this.metrics.recordGenerated(System.nanoTime() - start);
+					                 return value;
+				                 });
+			}
+			return LongStream.range(from, to)
+			                 .mapToObj(index -> generator.at(index, length));
+		}
+
+		/**
+		 * parallel version of {@link #rangeStream(int, long, long)}. The result is the same for any number of cores.
+		 *
+		 * @param length length of each random string
+		 * @param from   index of the first string
+		 * @param to     index after the last string
+		 *
+		 * @return ordered parallel stream of {@code to - from} strings
+		 *
+		 * @throws IllegalStateException if the generator is not an {@link IRandomAccessGenerator}
+		 */
+		public Stream<T> parallelRangeStream(final int length, final long from, final long to) {
+			return this.rangeStream(length, from, to).parallel();
+		}
+
+		/**
+		 * write {@code count} strings, one per line, into {@code target}. The file is filled by parallel workers
+		 * through memory mapped regions, without creating any {@link java.lang.String}.
+		 *
+		 * @param target file, its content is replaced
+		 * @param count  number of strings
+		 * @param length length of each random string
+		 *
+		 * @return size of the file in bytes
+		 *
+		 * @throws IOException              if the file can not be written
+		 * @throws IllegalArgumentException if the generator is not a {@link RandomStringGenerator} of uniform ASCII
+		 *                                  chars
+		 */
+		public long writeTo(final Path target, final long count, final int length) throws IOException {
+			return this.writeTo(target, count, length, ThreadLocalRandom.current().nextLong());
+		}
+
+		/**
+		 * write {@code count} strings, one per line, into {@code target}. The same seed always gives the same file,
+		 * unless the generator is cryptographically strong: its strings stay secure and the seed is ignored.
+		 *
+		 * @param target file, its content is replaced
+		 * @param count  number of strings
+		 * @param length length of each random string
+		 * @param seed   seed of the content
+		 *
+		 * @return size of the file in bytes
+		 *
+		 * @throws IOException              if the file can not be written
+		 * @throws IllegalArgumentException if the generator is not a {@link RandomStringGenerator} of uniform ASCII
+		 *                                  chars
+		 */
+		public long writeTo(final Path target, final long count, final int length, final long seed) throws IOException {
+			Random.checkLength(length);
+			// subclasses, counters and permutations draw differently than the byte generator of the file
+			if (this.generator.getClass() != RandomStringGenerator.class) {
+				throw new IllegalArgumentException("Writing files requires a RandomStringGenerator, not " + this.generator.getClass().getName());
+			}
+			final RandomStringGenerator generator = (RandomStringGenerator) this.generator;
+			return TokenFileWriter.write(target, count, length, generator.getPool(), generator.getRandom(), seed);
+		}
+
+		/**
+		 * @return the root random state of a new parallel stream
+		 */
+		private RandomSource splitRoot() {
+			if (this.splits == null) {
+				return RandomSpliterator.seed();
+			}
+			synchronized (this.splits) {
+				return this.splits.split();
+			}
+		}
+
+		/**
+		 * endless sequential source drawing the strings in batches
+		 *
+		 * @param lengths distribution of the lengths of the random strings
+		 *
+		 * @return unordered stream
+		 */
+		private Stream<T> sequentialSource(final LengthDistribution lengths) {
+			return StreamSupport.stream(RandomSpliterator.sequential(this.generator, lengths, this.metrics), false);
+		}
+
+		/**
+		 * endless parallel source where every fork join worker draws from its own split random state
+		 *
+		 * @param lengths distribution of the lengths of the random strings
+		 *
+		 * @return unordered parallel stream
+		 */
+		private Stream<T> parallelSource(final LengthDistribution lengths) {
+			return StreamSupport.stream(RandomSpliterator.endless(this.generator, lengths, this.metrics, this.splitRoot()), true);
+		}
+
+		/**
+		 * drops strings which were already produced. Strings of pooled generators are packed into a
+		 * {@link PackedTokenSet}, those of any other generator are kept as their fingerprints in one. Results which
+		 * are not a {@link CharSequence}, like the numbers of a {@link RandomNumberGenerator}, fall back to a
+		 * concurrent hash set.
+		 *
+		 * @param stream   stream
+		 * @param length   length of each random string
+		 * @param expected expected number of strings
+		 *
+		 * @return stream of unique strings
+		 */
+		private Stream<T> unique(final Stream<T> stream, final int length, final long expected) {
+			if (this.generator instanceof IPooledGenerator) {
+				final char[]         symbols = ((IPooledGenerator) this.generator).getPool().getCharacters();
+				final PackedTokenSet store   = PackedTokenSet.onHeap(symbols, length, expected);
+				return stream.filter(this.dropping(token -> store.add((CharSequence) token)));
+			}
+			if (this.generator instanceof RandomNumberGenerator) {
+				return stream.filter(this.dropping(ConcurrentHashMap.<T>newKeySet()::add));
+			}
+			final PackedTokenSet store  = PackedTokenSet.fingerprinting(expected);
+			final Set<T>         others = ConcurrentHashMap.newKeySet();
+			return stream.filter(this.dropping(token -> token instanceof CharSequence ? store.add((CharSequence) token) : others.add(token)));
+		}
+
+		/**
+		 * counts the tokens dropped by {@code filter}, if instrumented
+		 *
+		 * @param filter filter
+		 *
+		 * @return filter
+		 */
+		private Predicate<T> rejecting(final Predicate<T> filter) {
+			if (this.metrics == null) {
+				return filter;
+			}
+			return token -> {
+				if (filter.test(token)) {
+					return true;
+				}
+				this.metrics.recordRejected();
+				return false;
+			};
+		}
+
+		/**
+		 * counts the tokens dropped by the uniqueness check {@code add}, if instrumented
+		 *
+		 * @param add adds a token to the seen tokens, {@code false} if it was seen before
+		 *
+		 * @return filter
+		 */
+		private Predicate<T> dropping(final Predicate<? super T> add) {
+			if (this.metrics == null) {
+				return add::test;
+			}
+			return token -> {
+				if (add.test(token)) {
+					return true;
+				}
+				this.metrics.recordDuplicate();
+				return false;
+			};
+		}
+
+		/**
+		 * the strings {@code from} to {@code from + limit} of a permutation
+		 *
+		 * @param generator permutation
+		 * @param length    length of each random string
+		 * @param from      index of the first string
+		 * @param limit     number of strings
+		 *
+		 * @return ordered stream of unique strings
+		 *
+		 * @throws IllegalArgumentException if the offset is negative or the keyspace has less than {@code from +
+		 *                                  limit} strings
+		 */
+		private Stream<T> permutedRange(final PermutationStringGenerator generator, final int length, final long from, final long limit) {
+			if (from < 0) {
+				throw new IllegalArgumentException("Invalid offset " + from);
+			}
+			if (limit > generator.keyspace(length) - from) {
+				throw new IllegalArgumentException("The keyspace of length " + length + " has less than " + from + " + " + limit + " strings");
+			}
+			// only an IPooledGenerator, which generates strings, gets here, so T is String
+			@SuppressWarnings("unchecked")
+			final IRandomStringGenerator<T> permuted = (IRandomStringGenerator<T>) generator;
+			return new RandomStream<>(permuted, this.metrics, this.splits).rangeStream(length, from, from + limit);
+		}
+
+		/**
+		 * @return the generator as permutation, built from the pool of the generator if needed. Its key is drawn from
+		 * the random of the generator, or from the thread local random if the generator has none.
+		 *
+		 * @throws IllegalStateException    if the generator is not an {@link IPooledGenerator}
+		 * @throws IllegalArgumentException if the pool of the generator is weighted, as a permutation is uniform
+		 */
+		private PermutationStringGenerator permutationGenerator() {
+			if (this.generator instanceof PermutationStringGenerator) {
+				return (PermutationStringGenerator) this.generator;
+			}
+			if (!(this.generator instanceof IPooledGenerator)) {
+				throw new IllegalStateException("Permuted streams require an IPooledGenerator");
+			}
+			final Generator.ICharPool pool = ((IPooledGenerator) this.generator).getPool();
+			if (pool instanceof WeightedCharPool) {
+				throw new IllegalArgumentException("Permuted streams do not support weighted pools");
+			}
+			final java.util.Random random = this.generator.getRandom();
+			return Generator.permutation(pool, (random == null ? ThreadLocalRandom.current() : random).nextLong());
+		}
+
+		/**
+		 * @return the generator as random access generator
+		 *
+		 * @throws IllegalStateException if the generator is not an {@link IRandomAccessGenerator}
+		 */
+		private IRandomAccessGenerator<T> randomAccessGenerator() {
+			if (!(this.generator instanceof IRandomAccessGenerator)) {
+				throw new IllegalStateException("Range streams require an IRandomAccessGenerator");
+			}
+			return (IRandomAccessGenerator<T>) this.generator;
+		}
 	}
 
 	/**
@@ -343,33 +972,107 @@ public class Random {
 	 * @return
 	 */
 	public static <T> Stream<T> streamParallel(final int limit, final int length, final IRandomStringGenerator<T> generator) {
-		return Random.build(generator).stream(length, limit);
+		return Random.build(generator).parallelStream(length, limit);
 	}
 
 	public static <T> Stream<T> streamParallelUnique(final int count, final int length, final Predicate<? super T> method, final IRandomStringGenerator<T> generator) {
-		return Random.build(generator)
-		             .stream(length)
-		             .distinct()
-		             .filter(method)
-		             .limit(count);
+		return Random.build(generator).parallelUniqueStream(length, count, method::test);
 	}
 
 	public static <T> List<T> list(final int count, final int length, final Predicate<? super T> method, final IRandomStringGenerator<T> generator) {
 		return Random.stream(count, length, method, generator).collect(Collectors.toList());
 	}
 
+	/**
+	 * generate {@code count} random strings asynchronously on {@code executor}
+	 *
+	 * @param count     number of strings
+	 * @param length    length of each random string
+	 * @param executor  executor running the batches
+	 * @param generator generator
+	 * @param <T>       type of strings
+	 *
+	 * @return future list of the strings
+	 *
+	 * @see RandomStream#listAsync(int, int, Executor)
+	 */
+	public static <T> CompletableFuture<List<T>> listAsync(final int count, final int length, final Executor executor, final IRandomStringGenerator<T> generator) {
+		return Random.build(generator).listAsync(length, count, executor);
+	}
+
+	/**
+	 * write {@code count} random strings, one per line, into {@code target}
+	 *
+	 * @param target file, its content is replaced
+	 * @param count  number of strings
+	 * @param length length of each random string
+	 * @param pool   ASCII chars, drawn uniformly
+	 * @param seed   seed of the content
+	 *
+	 * @return size of the file in bytes
+	 *
+	 * @throws IOException              if the file can not be written
+	 * @throws IllegalArgumentException if the pool is weighted or contains a char which is not ASCII
+	 */
+	public static long write(final Path target, final long count, final int length, final Generator.ICharPool pool, final long seed) throws IOException {
+		Random.checkLength(length);
+		return TokenFileWriter.write(target, count, length, pool, null, seed);
+	}
+
+	/**
+	 * provides a random alphanumeric string, generated directly without a stream. Use a {@link TokenPool} to take
+	 * pre generated strings.
+	 *
+	 * @param length length of the string
+	 *
+	 * @return random string
+	 */
 	public static java.lang.String get(final int length) {
-		return Random.build()
-		             .stream(length)
-		             .findFirst()
-		             .orElseThrow(RuntimeException::new);
+		Random.checkLength(length);
+		return Generator.alphanumeric().next(length);
 	}
 
 	public static BigInteger getNumber(final int length) {
-		return Random.build(Generator.integerNumbers())
-		             .stream(length)
-		             .findFirst()
-		             .orElseThrow(RuntimeException::new);
+		Random.checkLength(length);
+		return Generator.integerNumbers().next(length);
+	}
+
+	/**
+	 * get a random number with exactly {@code length} digits
+	 *
+	 * @param length number of digits, at most {@link RandomNumberGenerator#MAX_LONG_DIGITS}
+	 *
+	 * @return random number
+	 */
+	public static long getLong(final int length) {
+		return ThreadLocalRandom.current().nextLong(RandomNumberGenerator.lowerBound(length), RandomNumberGenerator.upperBound(length));
+	}
+
+	/**
+	 * get a stream of random numbers with exactly {@code length} digits, the numbers are never boxed
+	 *
+	 * @param length number of digits, at most {@link RandomNumberGenerator#MAX_LONG_DIGITS}
+	 * @param limit  number of numbers
+	 *
+	 * @return stream of numbers, parallel streams are supported
+	 */
+	public static LongStream longStream(final int length, final long limit) {
+		return ThreadLocalRandom.current().longs(limit, RandomNumberGenerator.lowerBound(length), RandomNumberGenerator.upperBound(length));
+	}
+
+	/**
+	 * get a stream of random numbers with exactly {@code length} digits, the numbers are never boxed
+	 *
+	 * @param length number of digits, at most {@link RandomNumberGenerator#MAX_INT_DIGITS}
+	 * @param limit  number of numbers
+	 *
+	 * @return stream of numbers, parallel streams are supported
+	 */
+	public static IntStream intStream(final int length, final long limit) {
+		if (length > RandomNumberGenerator.MAX_INT_DIGITS) {
+			throw new IllegalArgumentException("An int has at most " + RandomNumberGenerator.MAX_INT_DIGITS + " digits");
+		}
+		return ThreadLocalRandom.current().ints(limit, (int) RandomNumberGenerator.lowerBound(length), (int) RandomNumberGenerator.upperBound(length));
 	}
 
 	/**
@@ -400,9 +1103,9 @@ public class Random {
 	 *
 	 * @throws IllegalArgumentException if length is lower 2
 	 */
-	private static void checkLength(final int length) throws IllegalArgumentException {
+	static void checkLength(final int length) throws IllegalArgumentException {
 		if (length < 2) {
 			throw new IllegalArgumentException();
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,267 @@
+package org.alindner.tools.common.random;
+
+import org.alindner.tools.common.random.generator.IRandomAccessGenerator;
+import org.alindner.tools.common.random.generator.IRandomStringGenerator;
+import org.alindner.tools.common.random.metrics.StreamMetrics;
+import org.alindner.tools.common.random.source.RandomSource;
+import org.alindner.tools.common.random.source.SplitMix64;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Source for random streams, which draws its elements in batches through
+ * {@link IRandomStringGenerator#nextBatch(int, int)}, or {@link IRandomStringGenerator#nextBatch(int[])} if the
+ * lengths follow a {@link LengthDistribution}. Batches start with a single element and double up to
+ * {@link #BATCH}, so short streams do not draw many unused strings. Counter based
+ * {@link IRandomAccessGenerator random access generators} are drawn one string at a time, so a stream which is not
+ * consumed to its end never skips indexes of the run. If the stream is instrumented, a string is recorded in its
+ * {@link StreamMetrics} when it is emitted, not when it is drawn.
+ * <p>
+ * Parallel sources give every split its own {@link RandomSource#split() split} random state and a generator bound
+ * to it, so fork join workers never share a random generator. Sequential sources use the generator as it is and do
+ * not split.
+ *
+ * @param <T> type of the result
+ */
+class RandomSpliterator<T> implements Spliterator<T> {
+	/**
+	 * maximum number of strings drawn at once
+	 */
+	static final int BATCH = 256;
+
+	private final IRandomStringGenerator<T> generator;
+	private final LengthDistribution        lengths;
+	private final StreamMetrics             metrics;
+	private final RandomSource              random;
+	private final boolean                   sized;
+	private final boolean                   exact;
+	private       long                      remaining;
+	private       IRandomStringGenerator<T> bound;
+	private       java.util.Random          lengthRandom;
+	private       List<T>                   batch;
+	private       int                       index;
+	private       int                       batchSize = 1;
+	private       long                      nanos;
+
+	private RandomSpliterator(final IRandomStringGenerator<T> generator, final LengthDistribution lengths, final StreamMetrics metrics, final RandomSource random, final long remaining, final boolean sized) {
+		this.generator = generator;
+		this.lengths = lengths;
+		this.metrics = metrics;
+		this.random = random;
+		this.remaining = remaining;
+		this.sized = sized;
+		this.exact = generator instanceof IRandomAccessGenerator;
+		if (random == null) {
+			this.bound = generator;
+		}
+	}
+
+	/**
+	 * create a parallel source with exactly {@code count} elements
+	 *
+	 * @param generator generator
+	 * @param lengths   distribution of the lengths of the random strings
+	 * @param metrics   metrics recording the emitted strings, {@code null} if the stream is not instrumented
+	 * @param count     number of strings
+	 * @param random    random state of the source, split for every fork
+	 * @param <T>       type of the result
+	 *
+	 * @return sized spliterator
+	 *
+	 * @throws IllegalArgumentException if count is negative
+	 */
+	static <T> RandomSpliterator<T> sized(final IRandomStringGenerator<T> generator, final LengthDistribution lengths, final StreamMetrics metrics, final long count, final RandomSource random) {
+		RandomSpliterator.checkCount(count);
+		return new RandomSpliterator<>(generator, lengths, metrics, random, count, true);
+	}
+
+	/**
+	 * create an endless parallel source
+	 *
+	 * @param generator generator
+	 * @param lengths   distribution of the lengths of the random strings
+	 * @param metrics   metrics recording the emitted strings, {@code null} if the stream is not instrumented
+	 * @param random    random state of the source, split for every fork
+	 * @param <T>       type of the result
+	 *
+	 * @return endless spliterator
+	 */
+	static <T> RandomSpliterator<T> endless(final IRandomStringGenerator<T> generator, final LengthDistribution lengths, final StreamMetrics metrics, final RandomSource random) {
+		return new RandomSpliterator<>(generator, lengths, metrics, random, Long.MAX_VALUE, false);
+	}
+
+	/**
+	 * create a sequential source with exactly {@code count} elements
+	 *
+	 * @param generator generator
+	 * @param lengths   distribution of the lengths of the random strings
+	 * @param metrics   metrics recording the emitted strings, {@code null} if the stream is not instrumented
+	 * @param count     number of strings
+	 * @param <T>       type of the result
+	 *
+	 * @return sized spliterator
+	 *
+	 * @throws IllegalArgumentException if count is negative
+	 */
+	static <T> RandomSpliterator<T> sequential(final IRandomStringGenerator<T> generator, final LengthDistribution lengths, final StreamMetrics metrics, final long count) {
+		RandomSpliterator.checkCount(count);
+		return new RandomSpliterator<>(generator, lengths, metrics, null, count, true);
+	}
+
+	/**
+	 * create an endless sequential source
+	 *
+	 * @param generator generator
+	 * @param lengths   distribution of the lengths of the random strings
+	 * @param metrics   metrics recording the emitted strings, {@code null} if the stream is not instrumented
+	 * @param <T>       type of the result
+	 *
+	 * @return endless spliterator
+	 */
+	static <T> RandomSpliterator<T> sequential(final IRandomStringGenerator<T> generator, final LengthDistribution lengths, final StreamMetrics metrics) {
+		return new RandomSpliterator<>(generator, lengths, metrics, null, Long.MAX_VALUE, false);
+	}
+
+	@Override
+	public boolean tryAdvance(final Consumer<? super T> action) {
+		if (this.batch == null || this.index == this.batch.size()) {
+			if (this.sized && this.remaining <= 0) {
+				return false;
+			}
+			this.batch = this.draw(this.batchSize);
+			this.index = 0;
+			if (!this.exact) {
+				this.batchSize = Math.min(this.batchSize << 1, RandomSpliterator.BATCH);
+			}
+		}
+		this.emit(action, this.batch.get(this.index++));
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(final Consumer<? super T> action) {
+		if (!this.sized) {
+			Spliterator.super.forEachRemaining(action);
+			return;
+		}
+		if (this.batch != null) {
+			while (this.index < this.batch.size()) {
+				this.emit(action, this.batch.get(this.index++));
+			}
+			this.batch = null;
+		}
+		while (this.remaining > 0) {
+			for (final T value : this.draw(RandomSpliterator.BATCH)) {
+				this.emit(action, value);
+			}
+		}
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		final long half = this.remaining >>> 1;
+		if (this.random == null || half == 0) {
+			return null;
+		}
+		this.remaining -= half;
+		return new RandomSpliterator<>(this.generator, this.lengths, this.metrics, this.random.split(), half, this.sized);
+	}
+
+	@Override
+	public long estimateSize() {
+		if (!this.sized) {
+			return Long.MAX_VALUE;
+		}
+		return this.remaining + (this.batch == null ? 0 : this.batch.size() - this.index);
+	}
+
+	@Override
+	public int characteristics() {
+		return this.sized
+		       ? Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE
+		       : Spliterator.IMMUTABLE;
+	}
+
+	/**
+	 * draw the next batch
+	 *
+	 * @param size maximum size of the batch
+	 *
+	 * @return batch of at most {@code size} strings, no more than remaining
+	 */
+	private List<T> draw(final int size) {
+		final int count = this.sized ? (int) Math.min(size, this.remaining) : size;
+		if (this.sized) {
+			this.remaining -= count;
+		}
+		final long    start = this.metrics == null ? 0 : System.nanoTime();
+		final List<T> batch;
+		if (this.lengths.isFixed()) {
+			batch = this.generator().nextBatch(this.lengths.getMin(), count);
+		} else {
+			if (this.lengthRandom == null) {
+				this.lengthRandom = this.lengthRandom();
+			}
+			final int[] lengths = new int[count];
+			for (int i = 0; i < count; i++) {
+				lengths[i] = this.lengths.next(this.lengthRandom);
+			}
+			batch = this.generator().nextBatch(lengths);
+		}
+		if (this.metrics != null && count > 0) {
+			this.nanos = (System.nanoTime() - start) / count;
+		}
+		return batch;
+	}
+
+	/**
+	 * pass a string on, recording it as generated with the mean time of its batch
+	 *
+	 * @param action consumer
+	 * @param value  string
+	 */
+	private void emit(final Consumer<? super T> action, final T value) {
+		if (this.metrics != null) {
+			this.metrics.recordGenerated(this.nanos);
+		}
+		action.accept(value);
+	}
+
+	/**
+	 * @return the generator bound to the random state of this split
+	 */
+	private IRandomStringGenerator<T> generator() {
+		if (this.bound == null) {
+			this.bound = this.generator.withRandom(this.random);
+		}
+		return this.bound;
+	}
+
+	/**
+	 * @return the random the lengths are drawn from: the one of the bound generator, so seeded generators are
+	 * reproducible and secure generators draw secure lengths, otherwise the random state of this split
+	 */
+	private java.util.Random lengthRandom() {
+		final java.util.Random own = this.generator().getRandom();
+		if (own != null) {
+			return own;
+		}
+		return (this.random == null ? RandomSpliterator.seed() : this.random).asRandom();
+	}
+
+	/**
+	 * @return a new root random state for the splits of a stream
+	 */
+	static RandomSource seed() {
+		return new SplitMix64(ThreadLocalRandom.current().nextLong());
+	}
+
+	private static void checkCount(final long count) {
+		if (count < 0) {
+			throw new IllegalArgumentException(Long.toString(count));
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package org.alindner.tools.common.random;
+
+import org.alindner.tools.common.random.generator.Generator;
+import org.alindner.tools.common.random.generator.RandomByteGenerator;
+import org.alindner.tools.common.random.generator.WeightedCharPool;
+import org.alindner.tools.common.random.source.SplitMix64;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.LongStream;
+
+/**
+ * Writes fixed length tokens, one per line, into a file. As every line has the same size, the file size is known up
+ * front: the file is split into regions which are memory mapped and filled by parallel workers. Every region has its
+ * own random state derived from the seed, so a seeded file is the same on every run and every machine. Like the splits
+ * of a parallel stream, a region never replaces a cryptographically strong random by its seeded state, so the tokens
+ * of a secure generator stay secure, at the cost of the seed.
+ */
+final class TokenFileWriter {
+	private static final long   REGION_BYTES = 64L << 20;
+	private static final byte[] NEWLINE      = {'\n'};
+
+	private TokenFileWriter() {
+	}
+
+	/**
+	 * write {@code count} tokens into {@code target}, replacing its content
+	 *
+	 * @param target file
+	 * @param count  number of tokens
+	 * @param length length of each token
+	 * @param pool   ASCII chars, drawn uniformly
+	 * @param random random generator of the tokens, {@code null} for a seeded one
+	 * @param seed   seed of the content
+	 *
+	 * @return size of the file in bytes
+	 *
+	 * @throws IOException              if the file can not be written
+	 * @throws IllegalArgumentException if the pool is weighted or contains a char which is not ASCII
+	 */
+	static long write(final Path target, final long count, final int length, final Generator.ICharPool pool, final java.util.Random random, final long seed) throws IOException {
+		if (count < 0) {
+			throw new IllegalArgumentException(Long.toString(count));
+		}
+		if (pool instanceof WeightedCharPool) {
+			throw new IllegalArgumentException("Writing files does not support weighted pools");
+		}
+		final RandomByteGenerator generator       = new RandomByteGenerator(pool, random == null ? ThreadLocalRandom.current() : random);
+		final long                line            = length + 1L;
+		final long                tokensPerRegion = Math.max(1, TokenFileWriter.REGION_BYTES / line);
+		final long                regions         = (count + tokensPerRegion - 1) / tokensPerRegion;
+		try (final FileChannel channel = FileChannel.open(
+				target,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.READ,
+				StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING
+		)) {
+			LongStream.range(0, regions).parallel().forEach(region -> {
+				final long first  = region * tokensPerRegion;
+				final long tokens = Math.min(tokensPerRegion, count - first);
+				try {
+					final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, first * line, tokens * line);
+					generator.withRandom(new SplitMix64(TokenFileWriter.seed(seed, region)).asRandom())
+					         .fill(buffer, length, tokens, TokenFileWriter.NEWLINE);
+					buffer.force();
+				} catch (final IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+		return count * line;
+	}
+
+	/**
+	 * the seed of a region. Seeds and regions are mixed separately, so the regions of different seeds never share
+	 * their random state.
+	 *
+	 * @param seed   seed of the content
+	 * @param region index of the region
+	 *
+	 * @return seed of the region
+	 */
+	private static long seed(final long seed, final long region) {
+		return SplitMix64.mix64(SplitMix64.mix64(seed) ^ region);
+	}
+}
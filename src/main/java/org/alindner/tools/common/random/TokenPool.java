@@ -0,0 +1,175 @@
+package org.alindner.tools.common.random;
+
+import org.alindner.tools.common.random.generator.Generator;
+import org.alindner.tools.common.random.generator.IRandomStringGenerator;
+import org.alindner.tools.common.random.source.RandomSource;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Keeps a buffer of pre generated tokens for latency sensitive callers, e.g. session or CSRF tokens. Background
+ * producer threads refill the lock free buffer up to the high watermark as soon as it drops below the low watermark.
+ * {@link #get()} takes a token with a single non blocking poll and generates it inline if the buffer ran dry.
+ * <p>
+ * The generator is used by the caller threads for the inline fallback, so it has to be thread safe like the generators
+ * of {@link Generator}. The producers use their own copies bound to split random states.
+ *
+ * @param <T> type of the tokens
+ */
+public class TokenPool<T> implements AutoCloseable {
+	private static final AtomicInteger POOLS   = new AtomicInteger();
+	private static final long          IDLE_MS = 100;
+
+	private final IRandomStringGenerator<T> generator;
+	private final int                       length;
+	private final TokenRingBuffer<T>        buffer;
+	private final int                       lowWatermark;
+	private final int                       highWatermark;
+	private final Thread[]                  producers;
+	private final AtomicBoolean             refilling = new AtomicBoolean();
+	private final LongAdder                 inline    = new LongAdder();
+	private volatile boolean                closed;
+
+	/**
+	 * Create a pool refilled by one producer, which refills a quarter empty buffer.
+	 *
+	 * @param generator generator
+	 * @param length    length of each token
+	 * @param capacity  size of the buffer
+	 */
+	public TokenPool(final IRandomStringGenerator<T> generator, final int length, final int capacity) {
+		this(generator, length, capacity, capacity - Math.max(1, capacity / 4), capacity, 1);
+	}
+
+	/**
+	 * Create a pool.
+	 *
+	 * @param generator     generator
+	 * @param length        length of each token
+	 * @param capacity      size of the buffer
+	 * @param lowWatermark  the producers start when the buffer has less tokens
+	 * @param highWatermark the producers stop when the buffer has this many tokens
+	 * @param producers     number of producer threads
+	 *
+	 * @throws IllegalArgumentException if {@code 0 <= lowWatermark < highWatermark <= capacity} does not hold or
+	 *                                  there is no producer
+	 */
+	public TokenPool(final IRandomStringGenerator<T> generator, final int length, final int capacity, final int lowWatermark, final int highWatermark, final int producers) {
+		Random.checkLength(length);
+		if (lowWatermark < 0 || lowWatermark >= highWatermark || highWatermark > capacity) {
+			throw new IllegalArgumentException("Watermarks need 0 <= low < high <= capacity");
+		}
+		if (producers < 1) {
+			throw new IllegalArgumentException("A pool needs at least one producer");
+		}
+		this.generator = Objects.requireNonNull(generator);
+		this.length = length;
+		this.buffer = new TokenRingBuffer<>(capacity);
+		this.lowWatermark = lowWatermark;
+		this.highWatermark = highWatermark;
+		this.producers = new Thread[producers];
+
+		final RandomSource     random = RandomSpliterator.seed();
+		final int              pool   = TokenPool.POOLS.incrementAndGet();
+		for (int i = 0; i < producers; i++) {
+			final IRandomStringGenerator<T> bound = generator.withRandom(random.split());
+			this.producers[i] = new Thread(() -> this.produce(bound), "token-pool-" + pool + "-" + i);
+			this.producers[i].setDaemon(true);
+			this.producers[i].start();
+		}
+	}
+
+	/**
+	 * take a pre generated token, or generate it inline if the buffer is empty or the pool is closed
+	 *
+	 * @return token
+	 */
+	public T get() {
+		final T token = this.buffer.poll();
+		if (!this.closed && this.buffer.size() < this.lowWatermark && this.refilling.compareAndSet(false, true)) {
+			this.wakeProducers();
+		}
+		if (token != null) {
+			return token;
+		}
+		this.inline.increment();
+		return this.generator.next(this.length);
+	}
+
+	/**
+	 * @return number of buffered tokens
+	 */
+	public int size() {
+		return this.buffer.size();
+	}
+
+	/**
+	 * @return number of tokens generated inline because the buffer was empty
+	 */
+	public long getInlineCount() {
+		return this.inline.sum();
+	}
+
+	public int getLowWatermark() {
+		return this.lowWatermark;
+	}
+
+	public int getHighWatermark() {
+		return this.highWatermark;
+	}
+
+	/**
+	 * stop the producers and wait for them. Buffered tokens are still handed out, then {@link #get()} falls back to
+	 * inline generation.
+	 */
+	@Override
+	public void close() {
+		this.closed = true;
+		this.wakeProducers();
+		boolean interrupted = false;
+		for (final Thread producer : this.producers) {
+			while (producer.isAlive()) {
+				try {
+					producer.join();
+				} catch (final InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void produce(final IRandomStringGenerator<T> generator) {
+		while (!this.closed) {
+			while (!this.closed && this.buffer.size() < this.highWatermark) {
+				if (!this.buffer.offer(generator.next(this.length))) {
+					break;
+				}
+			}
+			// a wake up between these lines leaves a permit, so the park returns at once
+			this.refilling.set(false);
+			if (!this.closed && this.buffer.size() >= this.lowWatermark) {
+				LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(TokenPool.IDLE_MS));
+				if (Thread.interrupted()) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * unpark the producers, without taking any lock, so {@link #get()} never waits for a producer
+	 */
+	private void wakeProducers() {
+		for (final Thread producer : this.producers) {
+			LockSupport.unpark(producer);
+		}
+	}
+}
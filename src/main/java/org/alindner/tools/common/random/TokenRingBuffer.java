@@ -0,0 +1,102 @@
+package org.alindner.tools.common.random;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock free queue for many producers and many consumers. Every slot carries a sequence number which tells
+ * whether it is ready to be written or read in the current lap, so {@link #offer(Object)} and {@link #poll()} need a
+ * single compare and set on the tail respectively head counter and never block.
+ *
+ * @param <T> type of the elements
+ */
+final class TokenRingBuffer<T> {
+	private final AtomicReferenceArray<T> elements;
+	private final AtomicLongArray         sequences;
+	private final int                     mask;
+	private final AtomicLong              head = new AtomicLong();
+	private final AtomicLong              tail = new AtomicLong();
+
+	/**
+	 * @param capacity minimal capacity, rounded up to a power of two
+	 *
+	 * @throws IllegalArgumentException if capacity is lower 1 or above {@code 2^30}
+	 */
+	TokenRingBuffer(final int capacity) {
+		if (capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Invalid capacity " + capacity);
+		}
+		final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.elements = new AtomicReferenceArray<>(size);
+		this.sequences = new AtomicLongArray(size);
+		this.mask = size - 1;
+		for (int i = 0; i < size; i++) {
+			this.sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * @param element element
+	 *
+	 * @return {@code false} if the buffer is full
+	 */
+	boolean offer(final T element) {
+		long position = this.tail.get();
+		while (true) {
+			final int  index      = (int) position & this.mask;
+			final long difference = this.sequences.get(index) - position;
+			if (difference == 0) {
+				if (this.tail.compareAndSet(position, position + 1)) {
+					this.elements.lazySet(index, element);
+					this.sequences.lazySet(index, position + 1);
+					return true;
+				}
+				position = this.tail.get();
+			} else if (difference < 0) {
+				return false;
+			} else {
+				position = this.tail.get();
+			}
+		}
+	}
+
+	/**
+	 * @return the oldest element or {@code null} if the buffer is empty
+	 */
+	T poll() {
+		long position = this.head.get();
+		while (true) {
+			final int  index      = (int) position & this.mask;
+			final long difference = this.sequences.get(index) - (position + 1);
+			if (difference == 0) {
+				if (this.head.compareAndSet(position, position + 1)) {
+					final T element = this.elements.get(index);
+					this.elements.lazySet(index, null);
+					this.sequences.lazySet(index, position + this.mask + 1);
+					return element;
+				}
+				position = this.head.get();
+			} else if (difference < 0) {
+				return null;
+			} else {
+				position = this.head.get();
+			}
+		}
+	}
+
+	/**
+	 * @return approximate number of elements
+	 */
+	int size() {
+		final long size = this.tail.get() - this.head.get();
+		return (int) Math.max(0, Math.min(size, this.capacity()));
+	}
+
+	/**
+	 * @return number of slots
+	 */
+	int capacity() {
+		return this.mask + 1;
+	}
+}
@@ -0,0 +1,138 @@
+package org.alindner.tools.common.random.generator;
+
+import java.util.Arrays;
+
+/**
+ * Draws indexes with arbitrary fixed probabilities in constant time, using the alias method in the variant of Vose.
+ * The weights are spread over {@code size} equally likely columns; a column holds its own index up to a threshold and
+ * the index of a single alias above it. One {@code nextLong()} picks both the column, from its upper 32 bits, and the
+ * side of the threshold, from its lower 32 bits.
+ */
+public final class AliasTable {
+	private static final long ONE = 1L << 32;
+
+	private final long[]   thresholds;
+	private final int[]    aliases;
+	private final double[] probabilities;
+
+	/**
+	 * build the table for {@code weights}
+	 *
+	 * @param weights relative weights, the probability of index {@code i} is {@code weights[i] / sum(weights)}
+	 *
+	 * @throws IllegalArgumentException if there are no weights, a weight is negative or not finite or all are zero
+	 */
+	public AliasTable(final double... weights) {
+		final int size = weights.length;
+		if (size == 0) {
+			throw new IllegalArgumentException("An alias table needs at least one weight");
+		}
+		double sum = 0;
+		for (final double weight : weights) {
+			if (!(weight >= 0) || Double.isInfinite(weight)) {
+				throw new IllegalArgumentException("Invalid weight " + weight);
+			}
+			sum += weight;
+		}
+		if (!(sum > 0) || Double.isInfinite(sum)) {
+			throw new IllegalArgumentException("The weights have to sum up to a positive, finite value");
+		}
+		this.thresholds = new long[size];
+		this.aliases = new int[size];
+		this.probabilities = new double[size];
+
+		final double[] scaled = new double[size];
+		final int[]    small  = new int[size];
+		final int[]    large  = new int[size];
+		int            smalls = 0;
+		int            larges = 0;
+		for (int i = 0; i < size; i++) {
+			this.probabilities[i] = weights[i] / sum;
+			scaled[i] = this.probabilities[i] * size;
+			if (scaled[i] < 1) {
+				small[smalls++] = i;
+			} else {
+				large[larges++] = i;
+			}
+		}
+		while (smalls > 0 && larges > 0) {
+			final int less = small[--smalls];
+			final int more = large[--larges];
+			this.thresholds[less] = (long) (scaled[less] * AliasTable.ONE);
+			this.aliases[less] = more;
+			scaled[more] = (scaled[more] + scaled[less]) - 1;
+			if (scaled[more] < 1) {
+				small[smalls++] = more;
+			} else {
+				large[larges++] = more;
+			}
+		}
+		// rounding leftovers are full columns
+		while (larges > 0) {
+			final int index = large[--larges];
+			this.thresholds[index] = AliasTable.ONE;
+			this.aliases[index] = index;
+		}
+		while (smalls > 0) {
+			final int index = small[--smalls];
+			this.thresholds[index] = AliasTable.ONE;
+			this.aliases[index] = index;
+		}
+	}
+
+	/**
+	 * @return number of indexes
+	 */
+	public int size() {
+		return this.thresholds.length;
+	}
+
+	/**
+	 * @param index index
+	 *
+	 * @return the probability of {@code index}
+	 */
+	public double probability(final int index) {
+		return this.probabilities[index];
+	}
+
+	/**
+	 * draw an index
+	 *
+	 * @param random random generator
+	 *
+	 * @return index in {@code [0, size)}
+	 */
+	public int next(final java.util.Random random) {
+		return this.index(random.nextLong());
+	}
+
+	/**
+	 * fill {@code target} with symbols drawn by their weight
+	 *
+	 * @param random  random generator
+	 * @param symbols symbols, in the order of the weights
+	 * @param target  buffer
+	 * @param offset  first index
+	 * @param length  number of symbols
+	 */
+	void fill(final java.util.Random random, final char[] symbols, final char[] target, final int offset, final int length) {
+		if (this.thresholds.length == 1) {
+			Arrays.fill(target, offset, offset + length, symbols[0]);
+			return;
+		}
+		for (int i = offset, end = offset + length; i < end; i++) {
+			target[i] = symbols[this.index(random.nextLong())];
+		}
+	}
+
+	private int index(final long value) {
+		final int column = (int) (((value >>> 32) * this.thresholds.length) >>> 32);
+		return (value & 0xffffffffL) < this.thresholds[column] ? column : this.aliases[column];
+	}
+
+	@Override
+	public String toString() {
+		return "AliasTable" + Arrays.toString(this.probabilities);
+	}
+}
@@ -0,0 +1,322 @@
+package org.alindner.tools.common.random.generator;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable, compiled char pool. The symbols are deduplicated in order of their first occurrence and everything a
+ * generator needs to sample them, the power of two mask or the rejection threshold and for ASCII pools the byte lookup
+ * table, is computed once when the pool is created. Pools are therefore meant to be shared: the built-in ones are
+ * constants, {@link #of(Generator.ICharPool)} resolves equal pools to them, and new pools are built with
+ * {@link #union(Generator.ICharPool)}, {@link #difference(Generator.ICharPool)} and {@link #range(char, char)}.
+ */
+public final class CharPool implements Generator.ICharPool {
+	/**
+	 * {@code 0-9}
+	 */
+	public static final CharPool DIGITS = new CharPool(CharPool.chars('0', '9'));
+
+	/**
+	 * {@code A-Z}
+	 */
+	public static final CharPool UPPER_CASE = new CharPool(CharPool.chars('A', 'Z'));
+
+	/**
+	 * {@code a-z}
+	 */
+	public static final CharPool LOWER_CASE = new CharPool(CharPool.chars('a', 'z'));
+
+	/**
+	 * {@code A-Za-z0-9}
+	 */
+	public static final CharPool ALPHANUMERIC = new CharPool(CharPool.concat(
+			CharPool.UPPER_CASE.symbols,
+			CharPool.LOWER_CASE.symbols,
+			CharPool.DIGITS.symbols
+	));
+
+	/**
+	 * {@code A-Za-z0-9} and the signs {@code ,!\u00a7$%&/()=?{[]}\-_.:;+*~#<>}
+	 */
+	public static final CharPool ALPHANUMERIC_SIGNS = new CharPool(CharPool.concat(
+			CharPool.ALPHANUMERIC.symbols,
+			",!\u00a7$%&/()=?{[]}\\-_.:;+*~#<>".toCharArray()
+	));
+
+	/**
+	 * {@code A-Za-z0-9_}
+	 */
+	public static final CharPool WORD = new CharPool(CharPool.concat(CharPool.ALPHANUMERIC.symbols, new char[]{'_'}));
+
+	private final char[]        symbols;
+	private final SymbolSampler sampler;
+	private final byte[]        bytes;
+
+	private CharPool(final char[] symbols) {
+		this.symbols = symbols;
+		this.sampler = new SymbolSampler(symbols.length);
+		byte[] bytes = new byte[symbols.length];
+		for (int i = 0; i < symbols.length; i++) {
+			if (symbols[i] > 0x7f) {
+				bytes = null;
+				break;
+			}
+			bytes[i] = (byte) symbols[i];
+		}
+		this.bytes = bytes;
+	}
+
+	/**
+	 * compile the chars of a sequence into a pool
+	 *
+	 * @param chars chars, duplicates are dropped
+	 *
+	 * @return pool
+	 *
+	 * @throws IllegalArgumentException if {@code chars} is empty
+	 */
+	public static CharPool of(final CharSequence chars) {
+		return CharPool.of(chars.toString().toCharArray());
+	}
+
+	/**
+	 * compile chars into a pool
+	 *
+	 * @param chars chars, duplicates are dropped
+	 *
+	 * @return pool
+	 *
+	 * @throws IllegalArgumentException if {@code chars} is empty
+	 */
+	public static CharPool of(final char... chars) {
+		final BitSet seen    = new BitSet();
+		final char[] symbols = new char[chars.length];
+		int          size    = 0;
+		for (final char c : chars) {
+			if (!seen.get(c)) {
+				seen.set(c);
+				symbols[size++] = c;
+			}
+		}
+		final char[]   distinct = size == chars.length ? symbols : Arrays.copyOf(symbols, size);
+		final CharPool shared   = Shared.POOLS.get(new String(distinct));
+		return shared != null ? shared : new CharPool(distinct);
+	}
+
+	/**
+	 * compile any uniform pool. Compiled pools are returned as they are, pools equal to a built-in one resolve to the
+	 * shared constant. A {@link WeightedCharPool} is rejected, as a compiled pool draws its chars uniformly and would
+	 * silently drop the weights.
+	 *
+	 * @param pool pool
+	 *
+	 * @return compiled pool
+	 *
+	 * @throws IllegalArgumentException if the pool is empty or weighted
+	 */
+	public static CharPool of(final Generator.ICharPool pool) {
+		if (pool instanceof CharPool) {
+			return (CharPool) pool;
+		}
+		if (pool instanceof WeightedCharPool) {
+			throw new IllegalArgumentException("Only a RandomStringGenerator draws from a weighted pool");
+		}
+		return CharPool.of(pool.getCharacters());
+	}
+
+	/**
+	 * all chars from {@code from} to {@code to}, both inclusive
+	 *
+	 * @param from first char
+	 * @param to   last char
+	 *
+	 * @return pool
+	 *
+	 * @throws IllegalArgumentException if {@code from} is greater than {@code to}
+	 */
+	public static CharPool range(final char from, final char to) {
+		if (from > to) {
+			throw new IllegalArgumentException("Empty range " + from + "-" + to);
+		}
+		return CharPool.of(CharPool.chars(from, to));
+	}
+
+	/**
+	 * the symbols of this pool followed by those of {@code other} which are not part of it
+	 *
+	 * @param other pool
+	 *
+	 * @return union
+	 */
+	public CharPool union(final Generator.ICharPool other) {
+		return CharPool.of(CharPool.concat(this.symbols, other.getCharacters()));
+	}
+
+	/**
+	 * the symbols of this pool which are not part of {@code other}
+	 *
+	 * @param other pool
+	 *
+	 * @return difference
+	 *
+	 * @throws IllegalArgumentException if no symbol is left
+	 */
+	public CharPool difference(final Generator.ICharPool other) {
+		final BitSet removed = new BitSet();
+		for (final char c : other.getCharacters()) {
+			removed.set(c);
+		}
+		final char[] left = new char[this.symbols.length];
+		int          size = 0;
+		for (final char c : this.symbols) {
+			if (!removed.get(c)) {
+				left[size++] = c;
+			}
+		}
+		if (size == 0) {
+			throw new IllegalArgumentException("A char pool needs at least one symbol");
+		}
+		return size == this.symbols.length ? this : CharPool.of(Arrays.copyOf(left, size));
+	}
+
+	/**
+	 * @return a copy of the symbols
+	 */
+	@Override
+	public char[] getCharacters() {
+		return this.symbols.clone();
+	}
+
+	/**
+	 * @return number of distinct symbols
+	 */
+	public int size() {
+		return this.symbols.length;
+	}
+
+	/**
+	 * @param c char
+	 *
+	 * @return whether {@code c} is a symbol of this pool
+	 */
+	public boolean contains(final char c) {
+		for (final char symbol : this.symbols) {
+			if (symbol == c) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return whether every symbol is an ASCII char
+	 */
+	public boolean isAscii() {
+		return this.bytes != null;
+	}
+
+	/**
+	 * @return the shared symbols, never modify them
+	 */
+	char[] symbols() {
+		return this.symbols;
+	}
+
+	/**
+	 * @return the sampler for the symbols
+	 */
+	SymbolSampler sampler() {
+		return this.sampler;
+	}
+
+	/**
+	 * the symbols as ASCII bytes, never modify them
+	 *
+	 * @return byte lookup table
+	 *
+	 * @throws IllegalArgumentException if the pool contains a char which is not ASCII
+	 */
+	byte[] bytes() {
+		if (this.bytes == null) {
+			throw new IllegalArgumentException("Not an ASCII pool: " + this);
+		}
+		return this.bytes;
+	}
+
+	/**
+	 * @param from first char
+	 * @param to   last char
+	 *
+	 * @return all chars from {@code from} to {@code to}, both inclusive
+	 */
+	private static char[] chars(final char from, final char to) {
+		final char[] chars = new char[to - from + 1];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = (char) (from + i);
+		}
+		return chars;
+	}
+
+	/**
+	 * @param parts chars
+	 *
+	 * @return the parts one after another
+	 */
+	private static char[] concat(final char[]... parts) {
+		int length = 0;
+		for (final char[] part : parts) {
+			length += part.length;
+		}
+		final char[] all    = new char[length];
+		int          offset = 0;
+		for (final char[] part : parts) {
+			System.arraycopy(part, 0, all, offset, part.length);
+			offset += part.length;
+		}
+		return all;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof CharPool)) {
+			return false;
+		}
+		return Arrays.equals(this.symbols, ((CharPool) o).symbols);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(this.symbols);
+	}
+
+	@Override
+	public String toString() {
+		return new String(this.symbols);
+	}
+
+	/**
+	 * the built-in pools by their symbols. The registry lives in its own class, which is initialized on the first
+	 * lookup, so it never sees a constant of {@link CharPool} before that constant is assigned.
+	 */
+	private static final class Shared {
+		private static final Map<String, CharPool> POOLS = new HashMap<>();
+
+		static {
+			for (final CharPool pool : new CharPool[]{
+					CharPool.DIGITS,
+					CharPool.UPPER_CASE,
+					CharPool.LOWER_CASE,
+					CharPool.ALPHANUMERIC,
+					CharPool.ALPHANUMERIC_SIGNS,
+					CharPool.WORD
+			}) {
+				Shared.POOLS.put(new String(pool.symbols), pool);
+			}
+		}
+	}
+}
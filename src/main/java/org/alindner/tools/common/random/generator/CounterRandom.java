@@ -0,0 +1,40 @@
+package org.alindner.tools.common.random.generator;
+
+import org.alindner.tools.common.random.source.SplitMix64;
+
+/**
+ * Counter based random numbers: the n-th number of the sequence for {@code (seed, index)} is a keyed hash of these
+ * values, so there is no state which has to be replayed to reach it. Not thread safe, one instance is used for one
+ * token.
+ */
+class CounterRandom extends java.util.Random {
+	private static final long serialVersionUID = 4469310232839001187L;
+
+	private long state;
+
+	/**
+	 * create the sequence for token {@code index} of the run {@code seed}
+	 *
+	 * @param seed  seed of the run
+	 * @param index index of the token
+	 */
+	CounterRandom(final long seed, final long index) {
+		super(0L);
+		this.state = SplitMix64.mix64(seed ^ SplitMix64.mix64((index + 1) * SplitMix64.GAMMA));
+	}
+
+	@Override
+	public synchronized void setSeed(final long seed) {
+		// the sequence is fixed by seed and index
+	}
+
+	@Override
+	protected int next(final int bits) {
+		return (int) (this.nextLong() >>> (Long.SIZE - bits));
+	}
+
+	@Override
+	public long nextLong() {
+		return SplitMix64.mix64(this.state += SplitMix64.GAMMA);
+	}
+}
@@ -0,0 +1,101 @@
+package org.alindner.tools.common.random.generator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A random access string generator. Token {@code i} is derived from a keyed hash of the seed and {@code i}, so the
+ * token number 7,000,000 of a run costs as much as the first one and a run looks the same no matter how it is split
+ * between threads.
+ */
+public class CounterRandomStringGenerator implements IRandomAccessGenerator<String>, IPooledGenerator {
+	private final CharPool      pool;
+	private final char[]        symbols;
+	private final SymbolSampler sampler;
+	private final long          seed;
+	private final AtomicLong    counter = new AtomicLong();
+
+	/**
+	 * Create a random access generator.
+	 *
+	 * @param alphanum chars
+	 * @param seed     seed of the run
+	 *
+	 * @throws IllegalArgumentException if the pool is weighted
+	 */
+	public CounterRandomStringGenerator(final Generator.ICharPool alphanum, final long seed) {
+		this.pool = CharPool.of(alphanum);
+		this.symbols = this.pool.symbols();
+		this.sampler = this.pool.sampler();
+		this.seed = seed;
+	}
+
+	/**
+	 * provides the next token of the run, the n-th call returns {@code at(n - 1, length)}.
+	 */
+	@Override
+	public String next(final int length) {
+		return this.at(this.counter.getAndIncrement(), length);
+	}
+
+	@Override
+	public int nextInto(final char[] target, final int offset, final int length) {
+		return this.atInto(this.counter.getAndIncrement(), target, offset, length);
+	}
+
+	/**
+	 * provides the next {@code count} tokens of the run, claimed with a single counter update.
+	 */
+	@Override
+	public List<String> nextBatch(final int length, final int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Negative batch size " + count);
+		}
+		final long     first = this.counter.getAndAdd(count);
+		final String[] batch = new String[count];
+		final char[]   buf   = new char[Math.max(0, length)];
+		for (int i = 0; i < count; i++) {
+			this.atInto(first + i, buf, 0, length);
+			batch[i] = new String(buf);
+		}
+		return Arrays.asList(batch);
+	}
+
+	@Override
+	public String at(final long index, final int length) {
+		final char[] buf = new char[length];
+		this.atInto(index, buf, 0, length);
+		return new String(buf);
+	}
+
+	/**
+	 * writes the random string number {@code index} into {@code target}.
+	 *
+	 * @param index  position of the string in the run
+	 * @param target buffer to write into
+	 * @param offset index of the first char to write
+	 * @param length length of string
+	 *
+	 * @return number of chars written
+	 */
+	public int atInto(final long index, final char[] target, final int offset, final int length) {
+		if (offset < 0 || length < 0 || offset > target.length - length) {
+			throw new IndexOutOfBoundsException();
+		}
+		this.sampler.fill(new CounterRandom(this.seed, index), this.symbols, target, offset, length);
+		return length;
+	}
+
+	/**
+	 * @return seed of the run
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+
+	@Override
+	public Generator.ICharPool getPool() {
+		return this.pool;
+	}
+}
@@ -0,0 +1,64 @@
+package org.alindner.tools.common.random.generator;
+
+import org.alindner.tools.common.random.source.SplitMix64;
+
+/**
+ * A keyed bijection on {@code [0, first * second)}. A value is split into the pair {@code (value / second, value %
+ * second)} and both halves are alternately shifted by a keyed hash of the other half, like the rounds of a format
+ * preserving Feistel cipher. Every round can be undone, so distinct inputs always give distinct outputs.
+ */
+final class FeistelPermutation {
+	private static final int ROUNDS = 8;
+
+	private final long[] keys = new long[FeistelPermutation.ROUNDS];
+
+	/**
+	 * create a permutation
+	 *
+	 * @param seed key of the permutation
+	 */
+	FeistelPermutation(final long seed) {
+		for (int round = 0; round < this.keys.length; round++) {
+			this.keys[round] = SplitMix64.mix64(seed + (round + 1) * SplitMix64.GAMMA);
+		}
+	}
+
+	/**
+	 * number of values in {@code [0, first * second)}, saturated at {@link Long#MAX_VALUE}
+	 *
+	 * @param first  size of the first half
+	 * @param second size of the second half
+	 *
+	 * @return size of the domain
+	 */
+	static long size(final long first, final long second) {
+		return first > Long.MAX_VALUE / second ? Long.MAX_VALUE : first * second;
+	}
+
+	/**
+	 * permute {@code value}
+	 *
+	 * @param value  value in {@code [0, first * second)}
+	 * @param first  size of the first half
+	 * @param second size of the second half
+	 * @param out    receives the first half at index 0 and the second half at index 1
+	 */
+	void permute(final long value, final long first, final long second, final long[] out) {
+		long a = value / second;
+		long b = value % second;
+		for (int round = 0; round < this.keys.length; round++) {
+			if ((round & 1) == 0) {
+				a = FeistelPermutation.addMod(a, SplitMix64.mix64(this.keys[round] ^ b), first);
+			} else {
+				b = FeistelPermutation.addMod(b, SplitMix64.mix64(this.keys[round] ^ a), second);
+			}
+		}
+		out[0] = a;
+		out[1] = b;
+	}
+
+	private static long addMod(final long value, final long hash, final long modulus) {
+		final long shift = Long.remainderUnsigned(hash, modulus);
+		return value >= modulus - shift ? value - (modulus - shift) : value + shift;
+	}
+}
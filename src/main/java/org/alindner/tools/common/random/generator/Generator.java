@@ -1,7 +1,10 @@
 package org.alindner.tools.common.random.generator;
 
+import org.alindner.tools.common.random.source.RandomSource;
+import org.alindner.tools.common.random.source.SecureBlockSource;
+
 import java.math.BigInteger;
-import java.util.Locale;
+import java.security.SecureRandom;
 import java.util.concurrent.ThreadLocalRandom;
 
 public class Generator {
@@ -11,37 +14,35 @@ public class Generator {
 
 	/**
 	 * an alphanumeric string generator.
+	 *
+	 * @see CharPool#ALPHANUMERIC
 	 */
 	public static class AlphaNumericPool implements ICharPool {
-		final String upper    = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
-		final String lower    = this.upper.toLowerCase(Locale.ROOT);
-		final String digits   = "0123456789";
-		final String alphanum = this.upper + this.lower + this.digits;
-
 		@Override
 		public char[] getCharacters() {
-			return this.alphanum.toCharArray();
+			return CharPool.ALPHANUMERIC.getCharacters();
 		}
 	}
 
 	/**
 	 * an alphanumeric string generator.
+	 *
+	 * @see CharPool#ALPHANUMERIC_SIGNS
 	 */
 	public static class AlphanumericSignsPool extends AlphaNumericPool {
-		final String alphanum = super.alphanum + "A-Z,a-z,0-9,!§$%&/()=?{[]}\\-_.,:;+*~#<>";
-
 		@Override
 		public char[] getCharacters() {
-			return this.alphanum.toCharArray();
+			return CharPool.ALPHANUMERIC_SIGNS.getCharacters();
 		}
 	}
 
+	/**
+	 * @see CharPool#DIGITS
+	 */
 	public static class NumbersPool implements ICharPool {
-		final String digits = "0123456789";
-
 		@Override
 		public char[] getCharacters() {
-			return this.digits.toCharArray();
+			return CharPool.DIGITS.getCharacters();
 		}
 	}
 
@@ -51,7 +52,7 @@ public class Generator {
 	 * @return String Generator
 	 */
 	public static IRandomStringGenerator<String> alphanumeric() {
-		return new RandomStringGenerator(new AlphaNumericPool(), ThreadLocalRandom.current());
+		return new RandomStringGenerator(CharPool.ALPHANUMERIC, ThreadLocalRandom.current());
 	}
 
 	/**
@@ -60,15 +61,17 @@ public class Generator {
 	 * @return String Generator
 	 */
 	public static IRandomStringGenerator<String> alphanumericSigns() {
-		return new RandomStringGenerator(new AlphanumericSignsPool(), ThreadLocalRandom.current());
+		return new RandomStringGenerator(CharPool.ALPHANUMERIC_SIGNS, ThreadLocalRandom.current());
 	}
 
 	/**
-	 * Create an alphanumeric string generator.
+	 * Create an unicode string generator, which also generates strings of an exact UTF-8 size.
 	 *
 	 * @return String Generator
+	 *
+	 * @see RandomUnicodeStringGenerator#nextUtf8(int)
 	 */
-	public static IRandomStringGenerator<String> unicode() {
+	public static RandomUnicodeStringGenerator unicode() {
 		return new RandomUnicodeStringGenerator(ThreadLocalRandom.current());
 	}
 
@@ -78,7 +81,7 @@ public class Generator {
 	 * @return Number Generator
 	 */
 	public static IRandomStringGenerator<String> numbers() {
-		return new RandomStringGenerator(new NumbersPool(), ThreadLocalRandom.current());
+		return new RandomStringGenerator(CharPool.DIGITS, ThreadLocalRandom.current());
 	}
 
 	/**
@@ -87,6 +90,259 @@ public class Generator {
 	 * @return Integer Number Generator
 	 */
 	public static IRandomStringGenerator<BigInteger> integerNumbers() {
-		return new RandomNumberGenerator(new NumbersPool(), ThreadLocalRandom.current());
+		return new RandomNumberGenerator(CharPool.DIGITS, ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Create an alphanumeric string generator drawing from {@code source}. It is as thread safe as the source.
+	 *
+	 * @param source random source, e.g. {@link RandomSource#xoshiro256(long)}
+	 *
+	 * @return String Generator
+	 */
+	public static IRandomStringGenerator<String> alphanumeric(final RandomSource source) {
+		return new RandomStringGenerator(CharPool.ALPHANUMERIC, source);
+	}
+
+	/**
+	 * Create an alphanumeric string generator with signs drawing from {@code source}.
+	 *
+	 * @param source random source
+	 *
+	 * @return String Generator
+	 */
+	public static IRandomStringGenerator<String> alphanumericSigns(final RandomSource source) {
+		return new RandomStringGenerator(CharPool.ALPHANUMERIC_SIGNS, source);
+	}
+
+	/**
+	 * Create an unicode string generator drawing from {@code source}.
+	 *
+	 * @param source random source
+	 *
+	 * @return String Generator
+	 */
+	public static RandomUnicodeStringGenerator unicode(final RandomSource source) {
+		return new RandomUnicodeStringGenerator(source);
+	}
+
+	/**
+	 * Create a digit string generator drawing from {@code source}.
+	 *
+	 * @param source random source
+	 *
+	 * @return Number Generator
+	 */
+	public static IRandomStringGenerator<String> numbers(final RandomSource source) {
+		return new RandomStringGenerator(CharPool.DIGITS, source);
+	}
+
+	/**
+	 * Create a {@link BigInteger} generator drawing from {@code source}.
+	 *
+	 * @param source random source
+	 *
+	 * @return Integer Number Generator
+	 */
+	public static IRandomStringGenerator<BigInteger> integerNumbers(final RandomSource source) {
+		return new RandomNumberGenerator(CharPool.DIGITS, source);
+	}
+
+	/**
+	 * Create an alphanumeric string generator for secrets like API keys. Every thread draws from its own buffered
+	 * DRBG, see {@link RandomSource#secure()}.
+	 *
+	 * @return String Generator
+	 */
+	public static IRandomStringGenerator<String> secureAlphanumeric() {
+		return Generator.secure(CharPool.ALPHANUMERIC);
+	}
+
+	/**
+	 * Create an alphanumeric string generator with signs for secrets.
+	 *
+	 * @return String Generator
+	 *
+	 * @see #secureAlphanumeric()
+	 */
+	public static IRandomStringGenerator<String> secureAlphanumericSigns() {
+		return Generator.secure(CharPool.ALPHANUMERIC_SIGNS);
+	}
+
+	/**
+	 * Create a digit string generator for secrets like one time codes.
+	 *
+	 * @return Number Generator
+	 *
+	 * @see #secureAlphanumeric()
+	 */
+	public static IRandomStringGenerator<String> secureNumbers() {
+		return Generator.secure(CharPool.DIGITS);
+	}
+
+	/**
+	 * Create a string generator for secrets over {@code pool}.
+	 *
+	 * @param pool chars
+	 *
+	 * @return String Generator
+	 *
+	 * @see #secureAlphanumeric()
+	 */
+	public static IRandomStringGenerator<String> secure(final ICharPool pool) {
+		return new RandomStringGenerator(pool, RandomSource.secure());
+	}
+
+	/**
+	 * Create a random access alphanumeric string generator.
+	 *
+	 * @param seed seed of the run
+	 *
+	 * @return String Generator
+	 *
+	 * @see CounterRandomStringGenerator
+	 */
+	public static IRandomAccessGenerator<String> randomAccess(final long seed) {
+		return Generator.randomAccess(CharPool.ALPHANUMERIC, seed);
+	}
+
+	/**
+	 * Create a random access string generator.
+	 *
+	 * @param pool chars
+	 * @param seed seed of the run
+	 *
+	 * @return String Generator
+	 *
+	 * @see CounterRandomStringGenerator
+	 */
+	public static IRandomAccessGenerator<String> randomAccess(final ICharPool pool, final long seed) {
+		return new CounterRandomStringGenerator(pool, seed);
+	}
+
+	/**
+	 * Create a generator of alphanumeric strings which are unique by construction.
+	 *
+	 * @param seed key of the permutation
+	 *
+	 * @return String Generator
+	 *
+	 * @see PermutationStringGenerator
+	 */
+	public static PermutationStringGenerator permutation(final long seed) {
+		return Generator.permutation(CharPool.ALPHANUMERIC, seed);
+	}
+
+	/**
+	 * Create a generator of strings which are unique by construction.
+	 *
+	 * @param pool chars
+	 * @param seed key of the permutation
+	 *
+	 * @return String Generator
+	 *
+	 * @see PermutationStringGenerator
+	 */
+	public static PermutationStringGenerator permutation(final ICharPool pool, final long seed) {
+		return new PermutationStringGenerator(pool, seed);
+	}
+
+	/**
+	 * Create the generator of one partition of a shared keyspace of alphanumeric strings. The generators of all
+	 * partitions of one seed produce disjoint strings, e.g. every JVM of a cluster passes its own {@code node} and
+	 * the same {@code seed} and {@code nodes}.
+	 *
+	 * @param seed  key of the permutation, shared by all partitions
+	 * @param node  partition of this generator, starting at zero
+	 * @param nodes number of partitions
+	 *
+	 * @return String Generator
+	 *
+	 * @see PermutationStringGenerator#partition(int, int)
+	 */
+	public static PermutationStringGenerator partition(final long seed, final int node, final int nodes) {
+		return Generator.permutation(seed).partition(node, nodes);
+	}
+
+	/**
+	 * Create an alphanumeric ASCII token generator.
+	 *
+	 * @return Byte Generator
+	 */
+	public static IRandomByteGenerator alphanumericBytes() {
+		return Generator.bytes(CharPool.ALPHANUMERIC);
+	}
+
+	/**
+	 * Create an ASCII token generator.
+	 *
+	 * @param pool ASCII chars
+	 *
+	 * @return Byte Generator
+	 */
+	public static IRandomByteGenerator bytes(final ICharPool pool) {
+		return new RandomByteGenerator(pool, ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Create a generator for strings following a template like {@code a[A-Za-z0-9]*}.
+	 *
+	 * @param template template
+	 *
+	 * @return String Generator
+	 *
+	 * @see TemplateStringGenerator
+	 */
+	public static TemplateStringGenerator template(final String template) {
+		return new TemplateStringGenerator(template, ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Create a generator whose chars are drawn by weight, e.g. {@code Generator.weighted(WeightedCharPool.ENGLISH)} for
+	 * text with realistic letter frequencies.
+	 *
+	 * @param pool weighted chars
+	 *
+	 * @return String Generator
+	 */
+	public static IRandomStringGenerator<String> weighted(final WeightedCharPool pool) {
+		return new RandomStringGenerator(pool, ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Create a generator whose chars are drawn by weight from {@code source}.
+	 *
+	 * @param pool   weighted chars
+	 * @param source random source
+	 *
+	 * @return String Generator
+	 */
+	public static IRandomStringGenerator<String> weighted(final WeightedCharPool pool, final RandomSource source) {
+		return new RandomStringGenerator(pool, source);
+	}
+
+	/**
+	 * the random a generator rebound by {@link IRandomStringGenerator#withRandom(java.util.Random)} draws from.
+	 * Cryptographically strong randoms are never replaced by the weaker split randoms of parallel streams: a
+	 * {@link SecureRandom} and the per thread {@link RandomSource#secure()} are kept, a single
+	 * {@link SecureBlockSource} is split, as it is not thread safe.
+	 *
+	 * @param current     random of the generator
+	 * @param replacement requested random
+	 *
+	 * @return random of the rebound generator
+	 */
+	static java.util.Random rebind(final java.util.Random current, final java.util.Random replacement) {
+		if (current instanceof SecureRandom) {
+			return current;
+		}
+		final RandomSource source = RandomSource.of(current);
+		if (source == RandomSource.secure()) {
+			return current;
+		}
+		if (source instanceof SecureBlockSource) {
+			return source.split().asRandom();
+		}
+		return replacement;
 	}
 }
@@ -0,0 +1,12 @@
+package org.alindner.tools.common.random.generator;
+
+/**
+ * A string generator which builds every string from the chars of a fixed {@link Generator.ICharPool}. Knowing the pool
+ * lets consumers pack generated strings into compact numeric keys.
+ */
+public interface IPooledGenerator extends IRandomStringGenerator<String> {
+	/**
+	 * @return the pool every generated char is taken from
+	 */
+	Generator.ICharPool getPool();
+}
@@ -0,0 +1,19 @@
+package org.alindner.tools.common.random.generator;
+
+/**
+ * A random string generator whose output is a pure function of a seed and an index. Any token of a run can be computed
+ * directly, so slices of a run can be generated independently on other threads or nodes.
+ *
+ * @param <T> type of string representation, mostly {@link String}.
+ */
+public interface IRandomAccessGenerator<T> extends IRandomStringGenerator<T> {
+	/**
+	 * provides the random string number {@code index} of this run.
+	 *
+	 * @param index  position of the string in the run, starting at 0
+	 * @param length length of string
+	 *
+	 * @return random string, always the same for the same seed, index and length
+	 */
+	T at(long index, int length);
+}
@@ -0,0 +1,66 @@
+package org.alindner.tools.common.random.generator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Interface for a random token generator which writes ASCII tokens as bytes, e.g. straight into buffers which are
+ * handed to NIO channels. It skips the {@link String} and the encoding step of {@link IRandomStringGenerator}.
+ */
+public interface IRandomByteGenerator {
+	/**
+	 * writes a random token with length {@code length} at the current position of {@code target}.
+	 *
+	 * @param target heap or direct buffer
+	 * @param length length of the token in bytes
+	 *
+	 * @throws java.nio.BufferOverflowException if the token does not fit into {@code target}
+	 */
+	void nextInto(ByteBuffer target, int length);
+
+	/**
+	 * writes up to {@code count} random tokens, each one followed by {@code separator}, as long as they fit into
+	 * {@code target}.
+	 *
+	 * @param target    heap or direct buffer
+	 * @param length    length of each token in bytes
+	 * @param count     maximum number of tokens
+	 * @param separator bytes written after each token, may be empty
+	 *
+	 * @return number of written tokens
+	 */
+	default long fill(final ByteBuffer target, final int length, final long count, final byte[] separator) {
+		long written = 0;
+		while (written < count && target.remaining() >= length + separator.length) {
+			this.nextInto(target, length);
+			target.put(separator);
+			written++;
+		}
+		return written;
+	}
+
+	/**
+	 * writes up to {@code count} random tokens without separator, as long as they fit into {@code target}.
+	 *
+	 * @param target heap or direct buffer
+	 * @param length length of each token in bytes
+	 * @param count  maximum number of tokens
+	 *
+	 * @return number of written tokens
+	 */
+	default long fill(final ByteBuffer target, final int length, final long count) {
+		return this.fill(target, length, count, new byte[0]);
+	}
+
+	/**
+	 * provides a generator which works like this one but draws from {@code random}.
+	 *
+	 * @param random random generator
+	 *
+	 * @return generator using {@code random}
+	 *
+	 * @see IRandomStringGenerator#withRandom(java.util.Random)
+	 */
+	default IRandomByteGenerator withRandom(final java.util.Random random) {
+		return this;
+	}
+}
@@ -1,5 +1,11 @@
 package org.alindner.tools.common.random.generator;
 
+import org.alindner.tools.common.random.source.RandomSource;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Interface for a random string generator. Provide a constructor where the randomness can be influenced.
  *
@@ -14,4 +20,126 @@ public interface IRandomStringGenerator<T> {
 	 * @return random string
 	 */
 	T next(int length);
+
+	/**
+	 * provides {@code count} random strings with length {@code length}. Streams draw their elements in batches, so
+	 * generators override this to keep their state in local variables over a whole batch. This implementation calls
+	 * {@link #next(int)} once per string.
+	 *
+	 * @param length length of each string
+	 * @param count  number of strings
+	 *
+	 * @return list of {@code count} random strings
+	 *
+	 * @throws IllegalArgumentException if count is negative
+	 */
+	default List<T> nextBatch(final int length, final int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Negative batch size " + count);
+		}
+		final List<T> batch = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			batch.add(this.next(length));
+		}
+		return batch;
+	}
+
+	/**
+	 * provides one random string per entry of {@code lengths}, e.g. for streams with a length distribution. This
+	 * implementation calls {@link #next(int)} for every length.
+	 *
+	 * @param lengths length of each string
+	 *
+	 * @return list of {@code lengths.length} random strings
+	 */
+	default List<T> nextBatch(final int[] lengths) {
+		final List<T> batch = new ArrayList<>(lengths.length);
+		for (final int length : lengths) {
+			batch.add(this.next(length));
+		}
+		return batch;
+	}
+
+	/**
+	 * writes a random string with length {@code length} into {@code target}, starting at {@code offset}. Generators
+	 * which produce chars directly override this to skip the intermediate object.
+	 *
+	 * @param target buffer to write into
+	 * @param offset index of the first char to write
+	 * @param length length of string
+	 *
+	 * @return number of chars written
+	 *
+	 * @throws IndexOutOfBoundsException if the string does not fit into {@code target}
+	 */
+	default int nextInto(final char[] target, final int offset, final int length) {
+		final String value = String.valueOf(this.next(length));
+		value.getChars(0, value.length(), target, offset);
+		return value.length();
+	}
+
+	/**
+	 * writes a random string with length {@code length} at the current position of {@code target}.
+	 *
+	 * @param target buffer to write into
+	 * @param length length of string
+	 *
+	 * @return number of chars written
+	 *
+	 * @throws java.nio.BufferOverflowException if the string does not fit into {@code target}
+	 */
+	default int nextInto(final CharBuffer target, final int length) {
+		final String value = String.valueOf(this.next(length));
+		target.put(value);
+		return value.length();
+	}
+
+	/**
+	 * appends a random string with length {@code length} to {@code target}.
+	 *
+	 * @param target builder to append to
+	 * @param length length of string
+	 *
+	 * @return number of chars written
+	 */
+	default int nextInto(final StringBuilder target, final int length) {
+		final String value = String.valueOf(this.next(length));
+		target.append(value);
+		return value.length();
+	}
+
+	/**
+	 * provides a generator which works like this one but draws from {@code random}. Parallel streams use this to give
+	 * every worker its own random state. Generators which can not be rebound return themselves.
+	 *
+	 * @param random random generator
+	 *
+	 * @return generator using {@code random}
+	 */
+	default IRandomStringGenerator<T> withRandom(final java.util.Random random) {
+		return this;
+	}
+
+	/**
+	 * provides the random generator this generator draws from. Streams draw the lengths of their strings from it, so
+	 * a seeded generator gives reproducible streams and a secure one secure lengths.
+	 *
+	 * @return random generator, {@code null} if the generator does not draw from one, e.g. because it is counter based
+	 */
+	default java.util.Random getRandom() {
+		return null;
+	}
+
+	/**
+	 * provides a generator which works like this one but draws from {@code source}.
+	 *
+	 * @param source random source, not shared with other threads
+	 *
+	 * @return generator using {@code source}
+	 *
+	 * @see #withRandom(java.util.Random)
+	 */
+	default IRandomStringGenerator<T> withRandom(final RandomSource source) {
+		return this.withRandom(source.asRandom());
+	}
 }
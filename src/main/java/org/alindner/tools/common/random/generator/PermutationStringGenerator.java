@@ -0,0 +1,229 @@
+package org.alindner.tools.common.random.generator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A random access generator whose strings are unique by construction. The leading chars of a string are the digits of
+ * a {@link FeistelPermutation keyed permutation} of its index, read in base {@code pool size}; as many digits as fit
+ * into two longs are permuted, e.g. 20 alphanumeric chars. The remaining chars, if any, are counter based random
+ * chars. Distinct indexes of one seed and length therefore never give the same string, without remembering any of
+ * them.
+ * <p>
+ * As the permutation is a bijection, a keyspace can be shared by many generators without any coordination: the
+ * {@link #partition(int, int) partition} {@code node} of {@code nodes} generators with the same seed only uses the
+ * permutation indexes {@code node, node + nodes, node + 2 * nodes, ...}, so e.g. every JVM of a cluster produces
+ * tokens no other JVM produces.
+ */
+public class PermutationStringGenerator implements IRandomAccessGenerator<String>, IPooledGenerator {
+	private final CharPool           pool;
+	private final char[]             symbols;
+	private final SymbolSampler      sampler;
+	private final FeistelPermutation permutation;
+	private final long               seed;
+	private final int                perWord;
+	private final int                node;
+	private final int                nodes;
+	private final AtomicLong         counter = new AtomicLong();
+
+	/**
+	 * Create a generator of unique strings.
+	 *
+	 * @param alphanum chars
+	 * @param seed     key of the permutation
+	 *
+	 * @throws IllegalArgumentException if the pool has less than two symbols or is weighted
+	 */
+	public PermutationStringGenerator(final Generator.ICharPool alphanum, final long seed) {
+		this.pool = CharPool.of(alphanum);
+		this.symbols = this.pool.symbols();
+		if (this.symbols.length < 2) {
+			throw new IllegalArgumentException("A permutation needs at least two symbols");
+		}
+		this.sampler = this.pool.sampler();
+		this.permutation = new FeistelPermutation(seed);
+		this.seed = seed;
+		int  perWord = 0;
+		long power   = 1;
+		while (power <= Long.MAX_VALUE / this.symbols.length) {
+			power *= this.symbols.length;
+			perWord++;
+		}
+		this.perWord = perWord;
+		this.node = 0;
+		this.nodes = 1;
+	}
+
+	private PermutationStringGenerator(final PermutationStringGenerator template, final int node, final int nodes) {
+		this.pool = template.pool;
+		this.symbols = template.symbols;
+		this.sampler = template.sampler;
+		this.permutation = template.permutation;
+		this.seed = template.seed;
+		this.perWord = template.perWord;
+		this.node = node;
+		this.nodes = nodes;
+	}
+
+	/**
+	 * Create the generator of partition {@code node} of the keyspace, which is split into {@code nodes} disjoint
+	 * partitions. Generators of distinct partitions with the same pool and seed never produce the same string, e.g.
+	 * {@code Generator.permutation(sharedSeed).partition(jvmId, jvmCount)}. A partition can be partitioned again,
+	 * e.g. between the threads of a node. The counter of the new generator starts at zero.
+	 *
+	 * @param node  partition of this generator, starting at zero
+	 * @param nodes number of partitions
+	 *
+	 * @return generator of the partition
+	 *
+	 * @throws IllegalArgumentException if {@code node} is not in {@code [0, nodes)} or there are too many partitions
+	 */
+	public PermutationStringGenerator partition(final int node, final int nodes) {
+		if (nodes < 1 || node < 0 || node >= nodes) {
+			throw new IllegalArgumentException("Invalid partition " + node + " of " + nodes);
+		}
+		try {
+			return new PermutationStringGenerator(this, Math.addExact(this.node, Math.multiplyExact(node, this.nodes)), Math.multiplyExact(this.nodes, nodes));
+		} catch (final ArithmeticException e) {
+			throw new IllegalArgumentException("Too many partitions", e);
+		}
+	}
+
+	/**
+	 * provides the next unique string, the n-th call returns {@code at(n - 1, length)}.
+	 */
+	@Override
+	public String next(final int length) {
+		return this.at(this.counter.getAndIncrement(), length);
+	}
+
+	@Override
+	public int nextInto(final char[] target, final int offset, final int length) {
+		return this.atInto(this.counter.getAndIncrement(), target, offset, length);
+	}
+
+	/**
+	 * provides the next {@code count} tokens of the run, claimed with a single counter update.
+	 */
+	@Override
+	public List<String> nextBatch(final int length, final int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Negative batch size " + count);
+		}
+		final long     first = this.counter.getAndAdd(count);
+		final String[] batch = new String[count];
+		final char[]   buf   = new char[Math.max(0, length)];
+		for (int i = 0; i < count; i++) {
+			this.atInto(first + i, buf, 0, length);
+			batch[i] = new String(buf);
+		}
+		return Arrays.asList(batch);
+	}
+
+	@Override
+	public String at(final long index, final int length) {
+		final char[] buf = new char[length];
+		this.atInto(index, buf, 0, length);
+		return new String(buf);
+	}
+
+	/**
+	 * writes the unique string number {@code index} into {@code target}.
+	 *
+	 * @param index  position of the string in the run
+	 * @param target buffer to write into
+	 * @param offset index of the first char to write
+	 * @param length length of string
+	 *
+	 * @return number of chars written
+	 *
+	 * @throws IllegalArgumentException if {@code index} is not lower than {@link #keyspace(int)}
+	 */
+	public int atInto(final long index, final char[] target, final int offset, final int length) {
+		if (offset < 0 || length < 0 || offset > target.length - length) {
+			throw new IndexOutOfBoundsException();
+		}
+		final int  permuted = Math.min(length, 2 * this.perWord);
+		final int  low      = permuted / 2;
+		final long first    = this.power(low);
+		final long second   = this.power(permuted - low);
+		final long size     = FeistelPermutation.size(first, second);
+		if (index < 0 || index >= this.partitionSize(size)) {
+			throw new IllegalArgumentException("Index " + index + " is outside of the keyspace of length " + length);
+		}
+		final long   global = index * this.nodes + this.node;
+		final long[] halves = new long[2];
+		this.permutation.permute(global, first, second, halves);
+		this.digits(halves[0], target, offset, low);
+		this.digits(halves[1], target, offset + low, permuted - low);
+		if (length > permuted) {
+			this.sampler.fill(new CounterRandom(this.seed, global), this.symbols, target, offset + permuted, length - permuted);
+		}
+		return length;
+	}
+
+	/**
+	 * number of unique strings with length {@code length} in the partition of this generator
+	 *
+	 * @param length length of string
+	 *
+	 * @return size of the keyspace, saturated at {@link Long#MAX_VALUE}
+	 */
+	public long keyspace(final int length) {
+		final int permuted = Math.min(length, 2 * this.perWord);
+		return this.partitionSize(FeistelPermutation.size(this.power(permuted / 2), this.power(permuted - permuted / 2)));
+	}
+
+	/**
+	 * @return partition of this generator, {@code 0} if the keyspace is not partitioned
+	 */
+	public int getNode() {
+		return this.node;
+	}
+
+	/**
+	 * @return number of partitions of the keyspace
+	 */
+	public int getNodes() {
+		return this.nodes;
+	}
+
+	/**
+	 * @return key of the permutation
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+
+	@Override
+	public Generator.ICharPool getPool() {
+		return this.pool;
+	}
+
+	/**
+	 * number of the indexes {@code node, node + nodes, ...} below {@code size}
+	 *
+	 * @param size size of the whole keyspace
+	 *
+	 * @return size of the partition
+	 */
+	private long partitionSize(final long size) {
+		return size <= this.node ? 0 : (size - this.node - 1) / this.nodes + 1;
+	}
+
+	private long power(final int exponent) {
+		long power = 1;
+		for (int i = 0; i < exponent; i++) {
+			power *= this.symbols.length;
+		}
+		return power;
+	}
+
+	private void digits(long value, final char[] target, final int offset, final int count) {
+		for (int i = offset, end = offset + count; i < end; i++) {
+			target[i] = this.symbols[(int) (value % this.symbols.length)];
+			value /= this.symbols.length;
+		}
+	}
+}
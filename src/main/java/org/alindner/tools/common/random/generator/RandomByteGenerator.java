@@ -0,0 +1,55 @@
+package org.alindner.tools.common.random.generator;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class RandomByteGenerator implements IRandomByteGenerator {
+	private final java.util.Random random;
+	private final byte[]           symbols;
+	private final SymbolSampler    sampler;
+
+	/**
+	 * Create ASCII tokens from a char pool.
+	 *
+	 * @param alphanum chars, all of them have to be ASCII
+	 */
+	public RandomByteGenerator(final Generator.ICharPool alphanum) {
+		this(alphanum, ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Create ASCII tokens from a char pool.
+	 *
+	 * @param alphanum chars, all of them have to be ASCII
+	 * @param random   random generator
+	 *
+	 * @throws IllegalArgumentException if the pool contains a char which is not ASCII or is weighted
+	 */
+	public RandomByteGenerator(final Generator.ICharPool alphanum, final java.util.Random random) {
+		final CharPool pool = CharPool.of(alphanum);
+		this.symbols = pool.bytes();
+		this.random = Objects.requireNonNull(random);
+		this.sampler = pool.sampler();
+	}
+
+	private RandomByteGenerator(final RandomByteGenerator template, final java.util.Random random) {
+		this.symbols = template.symbols;
+		this.sampler = template.sampler;
+		this.random = Objects.requireNonNull(random);
+	}
+
+	@Override
+	public void nextInto(final ByteBuffer target, final int length) {
+		if (target.remaining() < length) {
+			throw new BufferOverflowException();
+		}
+		this.sampler.fill(this.random, this.symbols, target, length);
+	}
+
+	@Override
+	public RandomByteGenerator withRandom(final java.util.Random random) {
+		return new RandomByteGenerator(this, Generator.rebind(this.random, random));
+	}
+}
@@ -1,31 +1,205 @@
 package org.alindner.tools.common.random.generator;
 
+import org.alindner.tools.common.random.source.RandomSource;
+
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.IntStream;
 
+/**
+ * Generates numbers with an exact number of digits. For the decimal {@link CharPool#DIGITS} the numbers are
+ * drawn directly from random bits, other digit pools are sampled char by char. The first digit is never {@code 0},
+ * unless the number has a single digit.
+ */
 public class RandomNumberGenerator implements IRandomStringGenerator<BigInteger> {
+	/**
+	 * maximum number of digits of {@link #nextLong(int)}
+	 */
+	public static final int MAX_LONG_DIGITS = 18;
+
+	/**
+	 * maximum number of digits of {@link #nextInt(int)}
+	 */
+	public static final int MAX_INT_DIGITS = 9;
+
+	private static final long[] POWERS_OF_TEN = new long[RandomNumberGenerator.MAX_LONG_DIGITS + 1];
+
+	static {
+		RandomNumberGenerator.POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < RandomNumberGenerator.POWERS_OF_TEN.length; i++) {
+			RandomNumberGenerator.POWERS_OF_TEN[i] = RandomNumberGenerator.POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
 	private final java.util.Random random;
 	private final char[]           symbols;
+	private final SymbolSampler    sampler;
+	private final char[]           leading;
+	private final SymbolSampler    leadingSampler;
+	private final boolean          decimal;
 
 	public RandomNumberGenerator(final Generator.ICharPool alphanum) {
 		this(alphanum, ThreadLocalRandom.current());
 	}
 
 	public RandomNumberGenerator(final Generator.ICharPool alphanum, final Random random) {
-		this.symbols = alphanum.getCharacters();
+		final CharPool pool    = CharPool.of(alphanum);
+		final CharPool leading = pool.contains('0') && pool.size() > 1 ? pool.difference(CharPool.of('0')) : pool;
+		this.symbols = pool.symbols();
+		this.random = Objects.requireNonNull(random);
+		this.sampler = pool.sampler();
+		this.leading = leading.symbols();
+		this.leadingSampler = leading.sampler();
+		this.decimal = pool == CharPool.DIGITS;
+	}
+
+	/**
+	 * Create random numbers from a random source. The generator is as thread safe as the source.
+	 *
+	 * @param alphanum digits
+	 * @param source   random source
+	 */
+	public RandomNumberGenerator(final Generator.ICharPool alphanum, final RandomSource source) {
+		this(alphanum, source.asRandom());
+	}
+
+	private RandomNumberGenerator(final RandomNumberGenerator template, final Random random) {
+		this.symbols = template.symbols;
+		this.sampler = template.sampler;
+		this.leading = template.leading;
+		this.leadingSampler = template.leadingSampler;
+		this.decimal = template.decimal;
 		this.random = Objects.requireNonNull(random);
 	}
 
+	/**
+	 * smallest number with {@code length} digits
+	 *
+	 * @param length number of digits, at most {@link #MAX_LONG_DIGITS}
+	 *
+	 * @return {@code 10^(length - 1)}, or {@code 0} for a single digit
+	 */
+	public static long lowerBound(final int length) {
+		RandomNumberGenerator.checkLongLength(length);
+		return length == 1 ? 0 : RandomNumberGenerator.POWERS_OF_TEN[length - 1];
+	}
+
+	/**
+	 * smallest number with more than {@code length} digits
+	 *
+	 * @param length number of digits, at most {@link #MAX_LONG_DIGITS}
+	 *
+	 * @return {@code 10^length}
+	 */
+	public static long upperBound(final int length) {
+		RandomNumberGenerator.checkLongLength(length);
+		return RandomNumberGenerator.POWERS_OF_TEN[length];
+	}
+
 	@Override
 	public BigInteger next(final int length) {
-		return new BigInteger(
-				IntStream.range(0, length)
-				         .mapToObj(i -> String.valueOf(this.symbols[this.random.nextInt(this.symbols.length)]))
-				         .reduce(String::concat)
-				         .orElse("0")
-		);
+		if (length < 1) {
+			return BigInteger.ZERO;
+		}
+		if (!this.decimal) {
+			return new BigInteger(new String(this.digits(length)));
+		}
+		if (length <= RandomNumberGenerator.MAX_LONG_DIGITS) {
+			return BigInteger.valueOf(this.nextLong(length));
+		}
+		final BigInteger lower = BigInteger.TEN.pow(length - 1);
+		final BigInteger range = lower.multiply(BigInteger.valueOf(9));
+		final int        bits  = range.bitLength();
+		BigInteger       value;
+		do {
+			value = new BigInteger(bits, this.random);
+		} while (value.compareTo(range) >= 0);
+		return value.add(lower);
+	}
+
+	@Override
+	public List<BigInteger> nextBatch(final int length, final int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Negative batch size " + count);
+		}
+		final BigInteger[] batch = new BigInteger[count];
+		if (this.decimal && length >= 1 && length <= RandomNumberGenerator.MAX_LONG_DIGITS) {
+			for (int i = 0; i < count; i++) {
+				batch[i] = BigInteger.valueOf(this.nextLong(length));
+			}
+		} else {
+			for (int i = 0; i < count; i++) {
+				batch[i] = this.next(length);
+			}
+		}
+		return Arrays.asList(batch);
+	}
+
+	/**
+	 * provides a random number with exactly {@code length} digits without boxing.
+	 *
+	 * @param length number of digits, at most {@link #MAX_LONG_DIGITS}
+	 *
+	 * @return random number
+	 */
+	public long nextLong(final int length) {
+		RandomNumberGenerator.checkLongLength(length);
+		if (!this.decimal) {
+			return Long.parseLong(new String(this.digits(length)));
+		}
+		final long lower = RandomNumberGenerator.lowerBound(length);
+		final long bound = RandomNumberGenerator.upperBound(length) - lower;
+		final long mask  = bound - 1;
+		long       bits  = this.random.nextLong() >>> 1;
+		long       value = bits % bound;
+		while (bits + mask - value < 0) {
+			bits = this.random.nextLong() >>> 1;
+			value = bits % bound;
+		}
+		return lower + value;
+	}
+
+	/**
+	 * provides a random number with exactly {@code length} digits without boxing.
+	 *
+	 * @param length number of digits, at most {@link #MAX_INT_DIGITS}
+	 *
+	 * @return random number
+	 */
+	public int nextInt(final int length) {
+		if (length > RandomNumberGenerator.MAX_INT_DIGITS) {
+			throw new IllegalArgumentException("An int has at most " + RandomNumberGenerator.MAX_INT_DIGITS + " digits");
+		}
+		return (int) this.nextLong(length);
+	}
+
+	@Override
+	public RandomNumberGenerator withRandom(final Random random) {
+		return new RandomNumberGenerator(this, Generator.rebind(this.random, random));
+	}
+
+	@Override
+	public Random getRandom() {
+		return this.random;
+	}
+
+	private char[] digits(final int length) {
+		final char[] digits = new char[length];
+		if (length == 1) {
+			this.sampler.fill(this.random, this.symbols, digits, 0, 1);
+		} else {
+			this.leadingSampler.fill(this.random, this.leading, digits, 0, 1);
+			this.sampler.fill(this.random, this.symbols, digits, 1, length - 1);
+		}
+		return digits;
+	}
+
+	private static void checkLongLength(final int length) {
+		if (length < 1 || length > RandomNumberGenerator.MAX_LONG_DIGITS) {
+			throw new IllegalArgumentException("A long has between 1 and " + RandomNumberGenerator.MAX_LONG_DIGITS + " digits");
+		}
 	}
 }
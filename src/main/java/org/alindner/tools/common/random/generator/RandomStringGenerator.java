@@ -1,12 +1,30 @@
 package org.alindner.tools.common.random.generator;
 
+import org.alindner.tools.common.random.source.RandomSource;
+
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.IntStream;
 
-public class RandomStringGenerator implements IRandomStringGenerator<String> {
+public class RandomStringGenerator implements IPooledGenerator {
+	/**
+	 * size of the scratch buffer used for targets without an accessible array
+	 */
+	private static final int CHUNK = 256;
+
+	/**
+	 * number of chars filled at once by {@link #nextBatch(int, int)}
+	 */
+	private static final int BATCH_CHARS = 8192;
+
 	private final java.util.Random random;
+	private final CharPool         pool;
+	private final WeightedCharPool weighted;
 	private final char[]           symbols;
+	private final SymbolSampler    sampler;
 
 	/**
 	 * Create an alphanumeric strings from a secure generator.
@@ -18,13 +36,35 @@ public class RandomStringGenerator implements IRandomStringGenerator<String> {
 	}
 
 	/**
-	 * Create an alphanumeric strings from a secure generator.
+	 * Create an alphanumeric strings from a secure generator. The chars of a {@link WeightedCharPool} are drawn by
+	 * their weight, those of any other pool uniformly.
 	 *
 	 * @param alphanum chars
 	 * @param random   random generator
 	 */
 	public RandomStringGenerator(final Generator.ICharPool alphanum, final java.util.Random random) {
-		this.symbols = alphanum.getCharacters();
+		this.weighted = alphanum instanceof WeightedCharPool ? (WeightedCharPool) alphanum : null;
+		this.pool = this.weighted == null ? CharPool.of(alphanum) : this.weighted.pool();
+		this.symbols = this.pool.symbols();
+		this.random = Objects.requireNonNull(random);
+		this.sampler = this.pool.sampler();
+	}
+
+	/**
+	 * Create random strings from a random source. The generator is as thread safe as the source.
+	 *
+	 * @param alphanum chars
+	 * @param source   random source
+	 */
+	public RandomStringGenerator(final Generator.ICharPool alphanum, final RandomSource source) {
+		this(alphanum, source.asRandom());
+	}
+
+	private RandomStringGenerator(final RandomStringGenerator template, final java.util.Random random) {
+		this.pool = template.pool;
+		this.weighted = template.weighted;
+		this.symbols = template.symbols;
+		this.sampler = template.sampler;
 		this.random = Objects.requireNonNull(random);
 	}
 
@@ -33,9 +73,135 @@ public class RandomStringGenerator implements IRandomStringGenerator<String> {
 	 */
 	@Override
 	public String next(final int length) {
-		return IntStream.range(0, length)
-		                .mapToObj(i -> String.valueOf(this.symbols[this.random.nextInt(this.symbols.length)]))
-		                .reduce(String::concat)
-		                .orElse("");
+		final char[] buf = new char[length];
+		this.fill(buf, 0, length);
+		return new String(buf);
+	}
+
+	/**
+	 * Generate random strings. The chars of many strings are sampled in one pass into a shared buffer, which is then
+	 * cut into the strings.
+	 */
+	@Override
+	public List<String> nextBatch(final int length, final int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Negative batch size " + count);
+		}
+		final String[] batch = new String[count];
+		if (length <= 0) {
+			Arrays.fill(batch, "");
+			return Arrays.asList(batch);
+		}
+		final int    rows = Math.max(1, Math.min(count, RandomStringGenerator.BATCH_CHARS / length));
+		final char[] buf  = new char[rows * length];
+		for (int i = 0; i < count; ) {
+			final int filled = Math.min(rows, count - i);
+			this.fill(buf, 0, filled * length);
+			for (int row = 0; row < filled; row++) {
+				batch[i++] = new String(buf, row * length, length);
+			}
+		}
+		return Arrays.asList(batch);
+	}
+
+	/**
+	 * Generate random strings of different lengths. Like {@link #nextBatch(int, int)} the chars of many strings are
+	 * sampled in one pass into a single buffer, which holds at least the longest string and is reused for all of them.
+	 */
+	@Override
+	public List<String> nextBatch(final int[] lengths) {
+		int longest = 0;
+		for (final int length : lengths) {
+			if (length < 0) {
+				throw new NegativeArraySizeException(Integer.toString(length));
+			}
+			longest = Math.max(longest, length);
+		}
+		final String[] batch = new String[lengths.length];
+		final char[]   buf   = new char[Math.max(longest, Math.min(RandomStringGenerator.BATCH_CHARS, longest * lengths.length))];
+		for (int i = 0; i < lengths.length; ) {
+			int end  = i;
+			int used = 0;
+			while (end < lengths.length && used + lengths[end] <= buf.length) {
+				used += lengths[end++];
+			}
+			this.fill(buf, 0, used);
+			for (int position = 0; i < end; i++) {
+				batch[i] = new String(buf, position, lengths[i]);
+				position += lengths[i];
+			}
+		}
+		return Arrays.asList(batch);
+	}
+
+	@Override
+	public int nextInto(final char[] target, final int offset, final int length) {
+		if (offset < 0 || length < 0 || offset > target.length - length) {
+			throw new IndexOutOfBoundsException();
+		}
+		this.fill(target, offset, length);
+		return length;
+	}
+
+	@Override
+	public int nextInto(final CharBuffer target, final int length) {
+		if (target.remaining() < length) {
+			throw new BufferOverflowException();
+		}
+		if (target.hasArray()) {
+			final int position = target.position();
+			this.fill(target.array(), target.arrayOffset() + position, length);
+			target.position(position + length);
+		} else {
+			final char[] chunk = new char[Math.min(length, RandomStringGenerator.CHUNK)];
+			for (int done = 0; done < length; done += chunk.length) {
+				final int count = Math.min(chunk.length, length - done);
+				this.fill(chunk, 0, count);
+				target.put(chunk, 0, count);
+			}
+		}
+		return length;
+	}
+
+	@Override
+	public int nextInto(final StringBuilder target, final int length) {
+		target.ensureCapacity(target.length() + length);
+		final char[] chunk = new char[Math.min(length, RandomStringGenerator.CHUNK)];
+		for (int done = 0; done < length; done += chunk.length) {
+			final int count = Math.min(chunk.length, length - done);
+			this.fill(chunk, 0, count);
+			target.append(chunk, 0, count);
+		}
+		return length;
+	}
+
+	@Override
+	public RandomStringGenerator withRandom(final java.util.Random random) {
+		return new RandomStringGenerator(this, Generator.rebind(this.random, random));
+	}
+
+	@Override
+	public java.util.Random getRandom() {
+		return this.random;
+	}
+
+	/**
+	 * fills {@code target} with random symbols in a single pass.
+	 *
+	 * @param target buffer
+	 * @param offset first index
+	 * @param length number of chars
+	 */
+	private void fill(final char[] target, final int offset, final int length) {
+		if (this.weighted == null) {
+			this.sampler.fill(this.random, this.symbols, target, offset, length);
+		} else {
+			this.weighted.table().fill(this.random, this.symbols, target, offset, length);
+		}
+	}
+
+	@Override
+	public Generator.ICharPool getPool() {
+		return this.weighted == null ? this.pool : this.weighted;
 	}
 }
@@ -1,8 +1,16 @@
 package org.alindner.tools.common.random.generator;
 
+import org.alindner.tools.common.random.source.RandomSource;
+
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
-import java.util.stream.IntStream;
 
+/**
+ * Generates strings of random unicode code points. The code points are drawn uniformly from a precomputed table of all
+ * defined code points of all planes, surrogates excluded, so every result is a well formed string of exactly the
+ * requested size.
+ */
 public class RandomUnicodeStringGenerator implements IRandomStringGenerator<String> {
 	private final java.util.Random random;
 
@@ -17,17 +25,129 @@ public class RandomUnicodeStringGenerator implements IRandomStringGenerator<Stri
 	}
 
 	/**
-	 * Generate a random string.
+	 * Create unicode strings from a random source. The generator is as thread safe as the source.
+	 *
+	 * @param source random source
+	 */
+	public RandomUnicodeStringGenerator(final RandomSource source) {
+		this(source.asRandom());
+	}
+
+	/**
+	 * Generate a random string with exactly {@code length} UTF-16 chars. If a single char is left, it is drawn from
+	 * the basic multilingual plane.
 	 */
 	@Override
 	public String next(final int length) {
 		final char[] buf = new char[length];
-		return IntStream.range(0, buf.length)
-		                .map(i -> this.random.nextInt(65536))
-		                .filter(Character::isDefined)
-		                .mapToObj(i -> (char) i)
-		                .map(value -> Character.toString(value))
-		                .reduce(String::concat)
-		                .orElse("");
+		this.fill(buf, 0, length);
+		return new String(buf);
+	}
+
+	@Override
+	public List<String> nextBatch(final int length, final int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Negative batch size " + count);
+		}
+		final String[] batch = new String[count];
+		final char[]   buf   = new char[Math.max(0, length)];
+		for (int i = 0; i < count; i++) {
+			this.fill(buf, 0, buf.length);
+			batch[i] = new String(buf);
+		}
+		return Arrays.asList(batch);
+	}
+
+	@Override
+	public int nextInto(final char[] target, final int offset, final int length) {
+		if (offset < 0 || length < 0 || offset > target.length - length) {
+			throw new IndexOutOfBoundsException();
+		}
+		this.fill(target, offset, length);
+		return length;
+	}
+
+	/**
+	 * Generate a random string whose UTF-8 encoding has exactly {@code bytes} bytes. When less than four bytes are
+	 * left, the last code points are drawn from those which still fit.
+	 *
+	 * @param bytes size of the UTF-8 encoding
+	 *
+	 * @return random string
+	 */
+	public String nextUtf8(final int bytes) {
+		final int[]  codePoints = CodePoints.TABLE;
+		final char[] buf        = new char[Math.max(0, bytes)];
+		int          chars      = 0;
+		for (int remaining = bytes; remaining > 0; ) {
+			final int codePoint = codePoints[this.random.nextInt(CodePoints.UTF8_LIMITS[Math.min(remaining, 4)])];
+			remaining -= CodePoints.utf8Length(codePoint);
+			chars += Character.toChars(codePoint, buf, chars);
+		}
+		return new String(buf, 0, chars);
+	}
+
+	@Override
+	public RandomUnicodeStringGenerator withRandom(final java.util.Random random) {
+		return new RandomUnicodeStringGenerator(Generator.rebind(this.random, random));
+	}
+
+	@Override
+	public java.util.Random getRandom() {
+		return this.random;
+	}
+
+	private void fill(final char[] target, final int offset, final int length) {
+		final int[] codePoints = CodePoints.TABLE;
+		final int   end        = offset + length;
+		for (int i = offset; i < end; ) {
+			final int bound = end - i > 1 ? codePoints.length : CodePoints.UTF8_LIMITS[3];
+			i += Character.toChars(codePoints[this.random.nextInt(bound)], target, i);
+		}
+	}
+
+	/**
+	 * lazily built table of all defined code points, ordered ascending. As UTF-8 and UTF-16 sizes grow with the code
+	 * point, every size class is a prefix of the table.
+	 */
+	private static final class CodePoints {
+		/**
+		 * all code points which are defined and not surrogates
+		 */
+		static final int[] TABLE;
+
+		/**
+		 * {@code UTF8_LIMITS[n]} is the number of table entries with an UTF-8 encoding of at most {@code n} bytes;
+		 * {@code UTF8_LIMITS[3]} is the size of the basic multilingual plane
+		 */
+		static final int[] UTF8_LIMITS = new int[5];
+
+		static {
+			final int[] table = new int[Character.MAX_CODE_POINT + 1];
+			int         size  = 0;
+			for (int codePoint = 0; codePoint <= Character.MAX_CODE_POINT; codePoint++) {
+				if (Character.isDefined(codePoint) && Character.getType(codePoint) != Character.SURROGATE) {
+					table[size++] = codePoint;
+					CodePoints.UTF8_LIMITS[CodePoints.utf8Length(codePoint)]++;
+				}
+			}
+			TABLE = Arrays.copyOf(table, size);
+			for (int i = 1; i < CodePoints.UTF8_LIMITS.length; i++) {
+				CodePoints.UTF8_LIMITS[i] += CodePoints.UTF8_LIMITS[i - 1];
+			}
+		}
+
+		private CodePoints() {
+		}
+
+		static int utf8Length(final int codePoint) {
+			if (codePoint < 0x80) {
+				return 1;
+			}
+			if (codePoint < 0x800) {
+				return 2;
+			}
+			return codePoint < 0x10000 ? 3 : 4;
+		}
 	}
 }
@@ -0,0 +1,146 @@
+package org.alindner.tools.common.random.generator;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Draws uniformly distributed symbol indexes in {@code [0, size)}. Instead of one {@code nextInt(size)} call per symbol
+ * a single {@code nextLong()} is split into as many indexes as its bits can hold: for power of two sizes the bits are
+ * used directly, otherwise the draw is read as a number in base {@code size}. Draws above the largest multiple of
+ * {@code size^n} are rejected, so every index stays uniform.
+ */
+final class SymbolSampler {
+	private final int  size;
+	private final int  bits;
+	private final long mask;
+	private final int  perDraw;
+	private final long limit;
+
+	/**
+	 * create a sampler for {@code size} symbols
+	 *
+	 * @param size number of symbols
+	 *
+	 * @throws IllegalArgumentException if size is lower 1
+	 */
+	SymbolSampler(final int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("A char pool needs at least one symbol");
+		}
+		this.size = size;
+		if ((size & (size - 1)) == 0) {
+			this.bits = Integer.numberOfTrailingZeros(size);
+			this.mask = size - 1;
+			this.perDraw = this.bits == 0 ? Integer.MAX_VALUE : Long.SIZE / this.bits;
+			this.limit = Long.MAX_VALUE;
+		} else {
+			long power = 1;
+			int  count = 0;
+			while (power <= Long.MAX_VALUE / size) {
+				power *= size;
+				count++;
+			}
+			this.bits = 0;
+			this.mask = 0;
+			this.perDraw = count;
+			this.limit = (Long.MAX_VALUE / power) * power;
+		}
+	}
+
+	/**
+	 * @return number of symbols
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * @return number of indexes extracted from one 64 bit draw
+	 */
+	int perDraw() {
+		return this.perDraw;
+	}
+
+	/**
+	 * draw a single index
+	 *
+	 * @param random random generator
+	 *
+	 * @return index in {@code [0, size)}
+	 */
+	int next(final java.util.Random random) {
+		return this.size == 1 ? 0 : random.nextInt(this.size);
+	}
+
+	/**
+	 * fill {@code target} with random symbols
+	 *
+	 * @param random  random generator
+	 * @param symbols symbols to draw from, at least {@link #size()} long
+	 * @param target  buffer
+	 * @param offset  first index
+	 * @param length  number of symbols
+	 */
+	void fill(final java.util.Random random, final char[] symbols, final char[] target, final int offset, final int length) {
+		final int end = offset + length;
+		int       i   = offset;
+		if (this.size == 1) {
+			Arrays.fill(target, offset, end, symbols[0]);
+		} else if (this.bits > 0) {
+			while (i < end) {
+				long value = random.nextLong();
+				for (int k = 0; k < this.perDraw && i < end; k++) {
+					target[i++] = symbols[(int) (value & this.mask)];
+					value >>>= this.bits;
+				}
+			}
+		} else {
+			while (i < end) {
+				long value = random.nextLong() >>> 1;
+				if (value >= this.limit) {
+					continue;
+				}
+				for (int k = 0; k < this.perDraw && i < end; k++) {
+					target[i++] = symbols[(int) (value % this.size)];
+					value /= this.size;
+				}
+			}
+		}
+	}
+
+	/**
+	 * write random symbols at the current position of {@code target}
+	 *
+	 * @param random  random generator
+	 * @param symbols symbols to draw from, at least {@link #size()} long
+	 * @param target  heap or direct buffer with at least {@code length} remaining bytes
+	 * @param length  number of symbols
+	 */
+	void fill(final java.util.Random random, final byte[] symbols, final ByteBuffer target, final int length) {
+		int i = 0;
+		if (this.size == 1) {
+			for (; i < length; i++) {
+				target.put(symbols[0]);
+			}
+		} else if (this.bits > 0) {
+			while (i < length) {
+				long value = random.nextLong();
+				for (int k = 0; k < this.perDraw && i < length; k++, i++) {
+					target.put(symbols[(int) (value & this.mask)]);
+					value >>>= this.bits;
+				}
+			}
+		} else {
+			while (i < length) {
+				long value = random.nextLong() >>> 1;
+				if (value >= this.limit) {
+					continue;
+				}
+				for (int k = 0; k < this.perDraw && i < length; k++, i++) {
+					target.put(symbols[(int) (value % this.size)]);
+					value /= this.size;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,369 @@
+package org.alindner.tools.common.random.generator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates strings which follow a template such as {@code [a-f0-9]{8}-[A-Z]{4}}. The template is compiled once into
+ * a plan of segments, each one a literal text or a char pool with a repeat count, so a constrained string is built in
+ * a single pass over one buffer instead of filtering unconstrained strings.
+ * <p>
+ * Syntax:
+ * <ul>
+ *     <li>any char is a literal, {@code \} escapes the next char</li>
+ *     <li>{@code [...]} is a char class of chars and ranges like {@code a-z}</li>
+ *     <li>{@code \d} is {@code [0-9]}, {@code \w} is {@code [A-Za-z0-9_]}, also inside char classes</li>
+ *     <li>{@code {n}} repeats the previous element {@code n} times, {@code {n,m}} between {@code n} and {@code m}
+ *     times</li>
+ *     <li>{@code *} repeats the previous element as often as needed to reach the length passed to
+ *     {@link #next(int)}; a template may contain it once</li>
+ * </ul>
+ * Without {@code *} the template alone defines the length and the length passed to {@link #next(int)} is ignored.
+ */
+public class TemplateStringGenerator implements IRandomStringGenerator<String> {
+	private final java.util.Random random;
+	private final Segment[]        segments;
+	private final int              fixedLength;
+	private final int              fill;
+
+	/**
+	 * Create a template based generator.
+	 *
+	 * @param template template
+	 *
+	 * @throws IllegalArgumentException if the template is malformed
+	 */
+	public TemplateStringGenerator(final String template) {
+		this(template, ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Create a template based generator.
+	 *
+	 * @param template template
+	 * @param random   random generator
+	 *
+	 * @throws IllegalArgumentException if the template is malformed
+	 */
+	public TemplateStringGenerator(final String template, final java.util.Random random) {
+		this.random = Objects.requireNonNull(random);
+		this.segments = new Parser(template).parse();
+		int fixedLength = 0;
+		int fill        = -1;
+		for (int i = 0; i < this.segments.length; i++) {
+			final Segment segment = this.segments[i];
+			if (segment.fill) {
+				if (fill >= 0) {
+					throw new IllegalArgumentException("A template may contain only one '*': " + template);
+				}
+				fill = i;
+			} else {
+				fixedLength += segment.min;
+			}
+		}
+		this.fixedLength = fixedLength;
+		this.fill = fill;
+	}
+
+	private TemplateStringGenerator(final TemplateStringGenerator template, final java.util.Random random) {
+		this.random = Objects.requireNonNull(random);
+		this.segments = template.segments;
+		this.fixedLength = template.fixedLength;
+		this.fill = template.fill;
+	}
+
+	/**
+	 * Generate a string following the template.
+	 *
+	 * @param length length of the string if the template contains {@code *}, ignored otherwise
+	 *
+	 * @throws IllegalArgumentException if the fixed part of the template is longer than {@code length}
+	 */
+	@Override
+	public String next(final int length) {
+		final int[]  counts = this.counts(length);
+		final char[] buf    = new char[TemplateStringGenerator.sum(counts)];
+		this.fill(counts, buf, 0);
+		return new String(buf);
+	}
+
+	@Override
+	public List<String> nextBatch(final int length, final int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Negative batch size " + count);
+		}
+		final String[] batch = new String[count];
+		for (int i = 0; i < count; i++) {
+			batch[i] = this.next(length);
+		}
+		return Arrays.asList(batch);
+	}
+
+	/**
+	 * Generate a string following a template without {@code *}.
+	 *
+	 * @return random string
+	 */
+	public String next() {
+		return this.next(this.fixedLength);
+	}
+
+	@Override
+	public int nextInto(final char[] target, final int offset, final int length) {
+		final int[] counts = this.counts(length);
+		final int   total  = TemplateStringGenerator.sum(counts);
+		if (offset < 0 || offset > target.length - total) {
+			throw new IndexOutOfBoundsException();
+		}
+		this.fill(counts, target, offset);
+		return total;
+	}
+
+	@Override
+	public TemplateStringGenerator withRandom(final java.util.Random random) {
+		return new TemplateStringGenerator(this, Generator.rebind(this.random, random));
+	}
+
+	@Override
+	public java.util.Random getRandom() {
+		return this.random;
+	}
+
+	/**
+	 * @return the length of every string if the template has neither {@code *} nor {@code {n,m}}, otherwise the
+	 * minimum length
+	 */
+	public int getFixedLength() {
+		return this.fixedLength;
+	}
+
+	private int[] counts(final int length) {
+		final int[] counts = new int[this.segments.length];
+		int         used   = 0;
+		for (int i = 0; i < counts.length; i++) {
+			final Segment segment = this.segments[i];
+			if (!segment.fill) {
+				counts[i] = segment.min == segment.max
+				            ? segment.min
+				            : segment.min + this.random.nextInt(segment.max - segment.min + 1);
+				used += counts[i];
+			}
+		}
+		if (this.fill >= 0) {
+			if (length < used) {
+				throw new IllegalArgumentException("The template needs at least " + used + " chars");
+			}
+			counts[this.fill] = length - used;
+		}
+		return counts;
+	}
+
+	private void fill(final int[] counts, final char[] target, final int offset) {
+		int position = offset;
+		for (int i = 0; i < this.segments.length; i++) {
+			final Segment segment = this.segments[i];
+			if (segment.sampler == null) {
+				System.arraycopy(segment.symbols, 0, target, position, counts[i]);
+			} else {
+				segment.sampler.fill(this.random, segment.symbols, target, position, counts[i]);
+			}
+			position += counts[i];
+		}
+	}
+
+	private static int sum(final int[] counts) {
+		int sum = 0;
+		for (final int count : counts) {
+			sum += count;
+		}
+		return sum;
+	}
+
+	/**
+	 * one step of the plan: either a literal text ({@code sampler == null}) or a pool with a repeat count
+	 */
+	private static final class Segment {
+		private final char[]        symbols;
+		private final SymbolSampler sampler;
+		private final int           min;
+		private final int           max;
+		private final boolean       fill;
+
+		private Segment(final char[] symbols, final SymbolSampler sampler, final int min, final int max, final boolean fill) {
+			this.symbols = symbols;
+			this.sampler = sampler;
+			this.min = min;
+			this.max = max;
+			this.fill = fill;
+		}
+	}
+
+	/**
+	 * compiles a template into segments
+	 */
+	private static final class Parser {
+		private final String        template;
+		private final List<Segment> segments = new ArrayList<>();
+		private final StringBuilder literal  = new StringBuilder();
+		private       int           position;
+
+		private Parser(final String template) {
+			this.template = Objects.requireNonNull(template);
+		}
+
+		private Segment[] parse() {
+			while (this.position < this.template.length()) {
+				final char[] symbols = this.atom();
+				final int    start   = this.position;
+				int          min     = 1;
+				int          max     = 1;
+				boolean      fill    = false;
+				if (this.peek() == '{') {
+					this.position++;
+					min = this.number();
+					max = min;
+					if (this.peek() == ',') {
+						this.position++;
+						max = this.number();
+					}
+					this.expect('}');
+					if (min > max) {
+						throw this.error("Empty repeat range", start);
+					}
+				} else if (this.peek() == '*') {
+					this.position++;
+					fill = true;
+				}
+				if (symbols.length == 1 && min == 1 && max == 1 && !fill) {
+					this.literal.append(symbols[0]);
+				} else {
+					this.flushLiteral();
+					final CharPool pool = CharPool.of(symbols);
+					this.segments.add(new Segment(pool.symbols(), pool.sampler(), min, max, fill));
+				}
+			}
+			this.flushLiteral();
+			return this.segments.toArray(new Segment[0]);
+		}
+
+		private char[] atom() {
+			final char c = this.template.charAt(this.position++);
+			switch (c) {
+				case '[':
+					return this.charClass();
+				case '\\':
+					return this.escape();
+				case '{':
+				case '}':
+				case '*':
+				case ']':
+					throw this.error("Unexpected '" + c + "'", this.position - 1);
+				default:
+					return new char[]{c};
+			}
+		}
+
+		private char[] escape() {
+			if (this.position >= this.template.length()) {
+				throw this.error("Dangling '\\'", this.position - 1);
+			}
+			final char c = this.template.charAt(this.position++);
+			if (c == 'd') {
+				return CharPool.DIGITS.symbols();
+			}
+			if (c == 'w') {
+				return CharPool.WORD.symbols();
+			}
+			return new char[]{c};
+		}
+
+		private char[] charClass() {
+			final int    start   = this.position - 1;
+			final BitSet members = new BitSet();
+			while (this.peek() != ']') {
+				if (this.position >= this.template.length()) {
+					throw this.error("Unclosed char class", start);
+				}
+				if (this.peek() == '\\' && this.position + 1 < this.template.length()) {
+					final char shorthand = this.template.charAt(this.position + 1);
+					if (shorthand == 'd' || shorthand == 'w') {
+						this.position++;
+						for (final char c : this.escape()) {
+							members.set(c);
+						}
+						continue;
+					}
+				}
+				final char from = this.classChar();
+				if (this.peek() == '-' && this.position + 1 < this.template.length() && this.template.charAt(this.position + 1) != ']') {
+					this.position++;
+					final char to = this.classChar();
+					if (from > to) {
+						throw this.error("Empty range " + from + "-" + to, start);
+					}
+					members.set(from, to + 1);
+				} else {
+					members.set(from);
+				}
+			}
+			this.position++;
+			if (members.isEmpty()) {
+				throw this.error("Empty char class", start);
+			}
+			final char[] symbols = new char[members.cardinality()];
+			for (int i = members.nextSetBit(0), k = 0; i >= 0; i = members.nextSetBit(i + 1)) {
+				symbols[k++] = (char) i;
+			}
+			return symbols;
+		}
+
+		private char classChar() {
+			final char c = this.template.charAt(this.position++);
+			if (c != '\\') {
+				return c;
+			}
+			if (this.position >= this.template.length()) {
+				throw this.error("Dangling '\\'", this.position - 1);
+			}
+			return this.template.charAt(this.position++);
+		}
+
+		private int number() {
+			final int start = this.position;
+			while (this.position < this.template.length() && Character.isDigit(this.template.charAt(this.position))) {
+				this.position++;
+			}
+			if (start == this.position) {
+				throw this.error("Expected a number", start);
+			}
+			return Integer.parseInt(this.template.substring(start, this.position));
+		}
+
+		private void expect(final char c) {
+			if (this.peek() != c) {
+				throw this.error("Expected '" + c + "'", this.position);
+			}
+			this.position++;
+		}
+
+		private char peek() {
+			return this.position < this.template.length() ? this.template.charAt(this.position) : 0;
+		}
+
+		private void flushLiteral() {
+			if (this.literal.length() > 0) {
+				final char[] text = this.literal.toString().toCharArray();
+				this.segments.add(new Segment(text, null, text.length, text.length, false));
+				this.literal.setLength(0);
+			}
+		}
+
+		private IllegalArgumentException error(final String message, final int index) {
+			return new IllegalArgumentException(message + " at index " + index + " of template " + this.template);
+		}
+	}
+}
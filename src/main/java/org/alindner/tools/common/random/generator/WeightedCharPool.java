@@ -0,0 +1,115 @@
+package org.alindner.tools.common.random.generator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A char pool whose symbols are drawn by weight instead of uniformly, e.g. with the letter frequencies of a language.
+ * The weights are compiled into an {@link AliasTable} once, so a {@link RandomStringGenerator} samples a weighted char
+ * as fast as a uniform one. {@link #getCharacters()} returns the distinct symbols. Only {@link RandomStringGenerator}
+ * honours the weights; the byte, number, counter and permutation generators reject a weighted pool instead of drawing
+ * its symbols uniformly.
+ */
+public final class WeightedCharPool implements Generator.ICharPool {
+	/**
+	 * the lower case letters with their frequencies in English text
+	 */
+	public static final WeightedCharPool ENGLISH = WeightedCharPool.of(
+			"abcdefghijklmnopqrstuvwxyz",
+			8.167, 1.492, 2.782, 4.253, 12.702, 2.228, 2.015, 6.094, 6.966, 0.153, 0.772, 4.025, 2.406,
+			6.749, 7.507, 1.929, 0.095, 5.987, 6.327, 9.056, 2.758, 0.978, 2.360, 0.150, 1.974, 0.074
+	);
+
+	private final CharPool   pool;
+	private final AliasTable table;
+
+	private WeightedCharPool(final CharPool pool, final double[] weights) {
+		this.pool = pool;
+		this.table = new AliasTable(weights);
+	}
+
+	/**
+	 * create a weighted pool
+	 *
+	 * @param symbols symbols, weights of repeated symbols are added up
+	 * @param weights relative weight of each symbol
+	 *
+	 * @return pool
+	 *
+	 * @throws IllegalArgumentException if there is not exactly one weight per symbol or the weights are invalid
+	 * @see AliasTable#AliasTable(double...)
+	 */
+	public static WeightedCharPool of(final CharSequence symbols, final double... weights) {
+		if (symbols.length() != weights.length) {
+			throw new IllegalArgumentException(symbols.length() + " symbols but " + weights.length + " weights");
+		}
+		final Map<Character, Double> merged = new LinkedHashMap<>();
+		for (int i = 0; i < weights.length; i++) {
+			merged.merge(symbols.charAt(i), weights[i], Double::sum);
+		}
+		return WeightedCharPool.of(merged);
+	}
+
+	/**
+	 * create a weighted pool
+	 *
+	 * @param weights relative weight of each symbol, in iteration order
+	 *
+	 * @return pool
+	 *
+	 * @throws IllegalArgumentException if the weights are invalid
+	 * @see AliasTable#AliasTable(double...)
+	 */
+	public static WeightedCharPool of(final Map<Character, ? extends Number> weights) {
+		final char[]   symbols = new char[weights.size()];
+		final double[] values  = new double[weights.size()];
+		int            i       = 0;
+		for (final Map.Entry<Character, ? extends Number> entry : weights.entrySet()) {
+			symbols[i] = entry.getKey();
+			values[i++] = entry.getValue().doubleValue();
+		}
+		return new WeightedCharPool(CharPool.of(symbols), values);
+	}
+
+	/**
+	 * @return a copy of the distinct symbols
+	 */
+	@Override
+	public char[] getCharacters() {
+		return this.pool.getCharacters();
+	}
+
+	/**
+	 * @param c char
+	 *
+	 * @return the probability of {@code c}, {@code 0} if it is not a symbol of this pool
+	 */
+	public double probability(final char c) {
+		final char[] symbols = this.pool.symbols();
+		for (int i = 0; i < symbols.length; i++) {
+			if (symbols[i] == c) {
+				return this.table.probability(i);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return the distinct symbols, in the order of the alias table
+	 */
+	CharPool pool() {
+		return this.pool;
+	}
+
+	/**
+	 * @return the alias table of the symbols
+	 */
+	AliasTable table() {
+		return this.table;
+	}
+
+	@Override
+	public String toString() {
+		return "WeightedCharPool[" + this.pool + "]";
+	}
+}
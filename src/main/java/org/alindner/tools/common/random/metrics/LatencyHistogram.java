@@ -0,0 +1,92 @@
+package org.alindner.tools.common.random.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent histogram of nanosecond durations with logarithmic buckets. Every power of two is split into
+ * {@link #SUB_BUCKETS} linear sub buckets, like a HDR histogram with one significant digit, so a recorded value is
+ * reported with at most 12.5% error over the whole {@code long} range, with a fixed footprint of some kilobytes.
+ */
+final class LatencyHistogram {
+	/**
+	 * number of linear sub buckets per power of two
+	 */
+	static final int SUB_BUCKETS = 8;
+
+	private static final int SUB_BITS = 3;
+
+	/**
+	 * number of buckets to cover every non negative {@code long}
+	 */
+	static final int BUCKETS = LatencyHistogram.SUB_BUCKETS + (Long.SIZE - 1 - LatencyHistogram.SUB_BITS) * LatencyHistogram.SUB_BUCKETS;
+
+	private final LongAdder[] counts = new LongAdder[LatencyHistogram.BUCKETS];
+
+	LatencyHistogram() {
+		for (int i = 0; i < this.counts.length; i++) {
+			this.counts[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * @param value non negative value
+	 *
+	 * @return index of the bucket holding {@code value}
+	 */
+	static int bucket(final long value) {
+		if (value < LatencyHistogram.SUB_BUCKETS) {
+			return (int) Math.max(0, value);
+		}
+		final int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		final int shift     = magnitude - LatencyHistogram.SUB_BITS;
+		return LatencyHistogram.SUB_BUCKETS + shift * LatencyHistogram.SUB_BUCKETS + (int) ((value >>> shift) & (LatencyHistogram.SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * @param bucket index of a bucket
+	 *
+	 * @return smallest value of the bucket
+	 */
+	static long lowerBound(final int bucket) {
+		if (bucket < LatencyHistogram.SUB_BUCKETS) {
+			return bucket;
+		}
+		final int shift = (bucket - LatencyHistogram.SUB_BUCKETS) / LatencyHistogram.SUB_BUCKETS;
+		final int sub   = (bucket - LatencyHistogram.SUB_BUCKETS) % LatencyHistogram.SUB_BUCKETS;
+		return (long) (LatencyHistogram.SUB_BUCKETS + sub) << shift;
+	}
+
+	/**
+	 * @param bucket index of a bucket
+	 *
+	 * @return largest value of the bucket
+	 */
+	static long upperBound(final int bucket) {
+		return bucket == LatencyHistogram.BUCKETS - 1 ? Long.MAX_VALUE : LatencyHistogram.lowerBound(bucket + 1) - 1;
+	}
+
+	void record(final long value) {
+		this.counts[LatencyHistogram.bucket(value)].increment();
+	}
+
+	void record(final long value, final long count) {
+		this.counts[LatencyHistogram.bucket(value)].add(count);
+	}
+
+	/**
+	 * @return a copy of the bucket counts, not atomic with concurrent updates
+	 */
+	long[] counts() {
+		final long[] counts = new long[this.counts.length];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = this.counts[i].sum();
+		}
+		return counts;
+	}
+
+	void reset() {
+		for (final LongAdder count : this.counts) {
+			count.reset();
+		}
+	}
+}
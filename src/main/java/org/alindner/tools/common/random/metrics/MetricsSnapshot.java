@@ -0,0 +1,104 @@
+package org.alindner.tools.common.random.metrics;
+
+/**
+ * Immutable copy of the values of {@link StreamMetrics} at one point in time.
+ */
+public final class MetricsSnapshot {
+	private final long   generated;
+	private final long   rejected;
+	private final long   duplicates;
+	private final long   totalNanos;
+	private final long   maxNanos;
+	private final long[] histogram;
+
+	MetricsSnapshot(final long generated, final long rejected, final long duplicates, final long totalNanos, final long maxNanos, final long[] histogram) {
+		this.generated = generated;
+		this.rejected = rejected;
+		this.duplicates = duplicates;
+		this.totalNanos = totalNanos;
+		this.maxNanos = maxNanos;
+		this.histogram = histogram;
+	}
+
+	/**
+	 * @return number of tokens produced by the generator
+	 */
+	public long getGenerated() {
+		return this.generated;
+	}
+
+	/**
+	 * @return number of tokens dropped by the filter of a stream
+	 */
+	public long getRejected() {
+		return this.rejected;
+	}
+
+	/**
+	 * @return number of tokens dropped by a unique stream because they were seen before
+	 */
+	public long getDuplicates() {
+		return this.duplicates;
+	}
+
+	/**
+	 * @return nanoseconds spent in the generator
+	 */
+	public long getTotalNanos() {
+		return this.totalNanos;
+	}
+
+	/**
+	 * @return mean nanoseconds per generated token, {@code 0} if nothing was generated
+	 */
+	public double getMeanNanos() {
+		return this.generated == 0 ? 0 : (double) this.totalNanos / this.generated;
+	}
+
+	/**
+	 * @return slowest token in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return this.maxNanos;
+	}
+
+	/**
+	 * @param percentile percentile between {@code 0} and {@code 100}
+	 *
+	 * @return upper bound of the bucket holding the percentile of the generation times, never more than
+	 * {@link #getMaxNanos()}
+	 *
+	 * @throws IllegalArgumentException if percentile is out of range
+	 */
+	public long percentileNanos(final double percentile) {
+		if (!(percentile >= 0 && percentile <= 100)) {
+			throw new IllegalArgumentException("A percentile is between 0 and 100: " + percentile);
+		}
+		long total = 0;
+		for (final long count : this.histogram) {
+			total += count;
+		}
+		if (total == 0) {
+			return 0;
+		}
+		final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long       seen = 0;
+		for (int i = 0; i < this.histogram.length; i++) {
+			seen += this.histogram[i];
+			if (seen >= rank) {
+				return Math.min(LatencyHistogram.upperBound(i), this.maxNanos);
+			}
+		}
+		return this.maxNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "MetricsSnapshot{generated=" + this.generated +
+				", rejected=" + this.rejected +
+				", duplicates=" + this.duplicates +
+				", meanNanos=" + this.getMeanNanos() +
+				", p99Nanos=" + this.percentileNanos(99) +
+				", maxNanos=" + this.maxNanos + '}';
+	}
+}
@@ -0,0 +1,172 @@
+package org.alindner.tools.common.random.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts what a {@link org.alindner.tools.common.random.Random.RandomStream} spends its time on: generated tokens and
+ * their generation time, tokens rejected by a filter and duplicates dropped by unique streams. All values are striped
+ * counters, so parallel streams do not contend on them. A stream is only instrumented through
+ * {@link org.alindner.tools.common.random.Random.RandomStream#instrumented(StreamMetrics)}, other streams do not touch
+ * any metrics.
+ * <p>
+ * The values can be read with {@link #snapshot()} or through JMX after {@link #register(String)}.
+ */
+public class StreamMetrics implements StreamMetricsMBean {
+	private final LongAdder        generated  = new LongAdder();
+	private final LongAdder        rejected   = new LongAdder();
+	private final LongAdder        duplicates = new LongAdder();
+	private final LongAdder        totalNanos = new LongAdder();
+	private final LongAccumulator  maxNanos   = new LongAccumulator(Math::max, 0);
+	private final LatencyHistogram histogram  = new LatencyHistogram();
+	private       ObjectName       name;
+
+	/**
+	 * record a generated token
+	 *
+	 * @param nanos time spent to generate the token
+	 */
+	public void recordGenerated(final long nanos) {
+		this.generated.increment();
+		this.totalNanos.add(nanos);
+		this.maxNanos.accumulate(nanos);
+		this.histogram.record(nanos);
+	}
+
+	/**
+	 * record a batch of generated tokens, each one is accounted with the mean time of the batch
+	 *
+	 * @param count number of tokens
+	 * @param nanos time spent to generate the whole batch
+	 */
+	public void recordGenerated(final long count, final long nanos) {
+		if (count <= 0) {
+			return;
+		}
+		this.generated.add(count);
+		this.totalNanos.add(nanos);
+		this.maxNanos.accumulate(nanos / count);
+		this.histogram.record(nanos / count, count);
+	}
+
+	/**
+	 * record a token dropped by a filter
+	 */
+	public void recordRejected() {
+		this.rejected.increment();
+	}
+
+	/**
+	 * record a token dropped as duplicate
+	 */
+	public void recordDuplicate() {
+		this.duplicates.increment();
+	}
+
+	/**
+	 * @return copy of the current values. Values recorded concurrently may or may not be included.
+	 */
+	public MetricsSnapshot snapshot() {
+		return new MetricsSnapshot(
+				this.generated.sum(),
+				this.rejected.sum(),
+				this.duplicates.sum(),
+				this.totalNanos.sum(),
+				this.maxNanos.get(),
+				this.histogram.counts()
+		);
+	}
+
+	/**
+	 * register the metrics at the platform MBean server as
+	 * {@code org.alindner.tools.common.random:type=StreamMetrics,name=<name>}
+	 *
+	 * @param name name of the stream
+	 *
+	 * @return name of the MBean
+	 *
+	 * @throws IllegalStateException if the metrics can not be registered, e.g. the name is taken
+	 */
+	public synchronized ObjectName register(final String name) {
+		try {
+			final ObjectName objectName = new ObjectName("org.alindner.tools.common.random:type=StreamMetrics,name=" + ObjectName.quote(name));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+			this.name = objectName;
+			return objectName;
+		} catch (final JMException e) {
+			throw new IllegalStateException("Can not register the stream metrics " + name, e);
+		}
+	}
+
+	/**
+	 * remove the metrics from the platform MBean server, if they were registered
+	 */
+	public synchronized void unregister() {
+		if (this.name == null) {
+			return;
+		}
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			if (server.isRegistered(this.name)) {
+				server.unregisterMBean(this.name);
+			}
+		} catch (final JMException e) {
+			throw new IllegalStateException("Can not unregister the stream metrics " + this.name, e);
+		}
+		this.name = null;
+	}
+
+	@Override
+	public long getGenerated() {
+		return this.generated.sum();
+	}
+
+	@Override
+	public long getRejected() {
+		return this.rejected.sum();
+	}
+
+	@Override
+	public long getDuplicates() {
+		return this.duplicates.sum();
+	}
+
+	@Override
+	public double getMeanNanos() {
+		return this.snapshot().getMeanNanos();
+	}
+
+	@Override
+	public long getMedianNanos() {
+		return this.snapshot().percentileNanos(50);
+	}
+
+	@Override
+	public long getP99Nanos() {
+		return this.snapshot().percentileNanos(99);
+	}
+
+	@Override
+	public long getP999Nanos() {
+		return this.snapshot().percentileNanos(99.9);
+	}
+
+	@Override
+	public long getMaxNanos() {
+		return this.maxNanos.get();
+	}
+
+	@Override
+	public void reset() {
+		this.generated.reset();
+		this.rejected.reset();
+		this.duplicates.reset();
+		this.totalNanos.reset();
+		this.maxNanos.reset();
+		this.histogram.reset();
+	}
+}
@@ -0,0 +1,27 @@
+package org.alindner.tools.common.random.metrics;
+
+/**
+ * JMX view of {@link StreamMetrics}.
+ */
+public interface StreamMetricsMBean {
+	long getGenerated();
+
+	long getRejected();
+
+	long getDuplicates();
+
+	double getMeanNanos();
+
+	long getMedianNanos();
+
+	long getP99Nanos();
+
+	long getP999Nanos();
+
+	long getMaxNanos();
+
+	/**
+	 * sets all values back to zero
+	 */
+	void reset();
+}
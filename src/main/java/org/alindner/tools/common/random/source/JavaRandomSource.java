@@ -0,0 +1,87 @@
+package org.alindner.tools.common.random.source;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link RandomSource} backed by a {@link java.util.Random}. It is as thread safe as the random.
+ */
+final class JavaRandomSource implements RandomSource {
+	/**
+	 * source which always draws from the {@link ThreadLocalRandom} of the calling thread
+	 */
+	static final RandomSource THREAD_LOCAL = new RandomSource() {
+		@Override
+		public long nextLong() {
+			return ThreadLocalRandom.current().nextLong();
+		}
+
+		@Override
+		public int nextInt(final int bound) {
+			return ThreadLocalRandom.current().nextInt(bound);
+		}
+
+		@Override
+		public RandomSource split() {
+			return this;
+		}
+
+		@Override
+		public java.util.Random asRandom() {
+			return ThreadLocalRandom.current();
+		}
+	};
+
+	private final java.util.Random random;
+
+	JavaRandomSource(final java.util.Random random) {
+		this.random = Objects.requireNonNull(random);
+	}
+
+	@Override
+	public long nextLong() {
+		return this.random.nextLong();
+	}
+
+	@Override
+	public int nextInt() {
+		return this.random.nextInt();
+	}
+
+	@Override
+	public int nextInt(final int bound) {
+		return this.random.nextInt(bound);
+	}
+
+	@Override
+	public double nextDouble() {
+		return this.random.nextDouble();
+	}
+
+	/**
+	 * @return a source of a new {@link SecureRandom} of the same algorithm, seeded by the system, for a secure random,
+	 * the per thread source for a {@link ThreadLocalRandom} and otherwise a new {@link java.util.Random} seeded from
+	 * this one
+	 */
+	@Override
+	public RandomSource split() {
+		if (this.random instanceof SecureRandom) {
+			try {
+				return new JavaRandomSource(SecureRandom.getInstance(((SecureRandom) this.random).getAlgorithm()));
+			} catch (final NoSuchAlgorithmException e) {
+				return new JavaRandomSource(new SecureRandom());
+			}
+		}
+		if (this.random instanceof ThreadLocalRandom) {
+			return JavaRandomSource.THREAD_LOCAL;
+		}
+		return new JavaRandomSource(new java.util.Random(this.random.nextLong()));
+	}
+
+	@Override
+	public java.util.Random asRandom() {
+		return this.random;
+	}
+}
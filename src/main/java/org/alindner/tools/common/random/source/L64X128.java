@@ -0,0 +1,58 @@
+package org.alindner.tools.common.random.source;
+
+/**
+ * L64X128MixRandom of the LXM family, the default {@code RandomGenerator} of Java 17: a 64 bit LCG and a xoroshiro128
+ * generator are combined and mixed. Splits choose a new odd LCG increment, so split sources are independent streams.
+ */
+public final class L64X128 implements RandomSource {
+	private static final long M = 0xd1342543de82ef95L;
+
+	private final long a;
+	private       long s;
+	private       long x0;
+	private       long x1;
+
+	/**
+	 * @param seed seed, expanded to the full state by {@link SplitMix64}
+	 */
+	public L64X128(final long seed) {
+		this(new SplitMix64(seed));
+	}
+
+	private L64X128(final RandomSource seeds) {
+		this.a = seeds.nextLong() | 1L;
+		this.s = seeds.nextLong();
+		long x0 = seeds.nextLong();
+		final long x1 = seeds.nextLong();
+		if ((x0 | x1) == 0) {
+			x0 = SplitMix64.GAMMA;
+		}
+		this.x0 = x0;
+		this.x1 = x1;
+	}
+
+	@Override
+	public long nextLong() {
+		final long result = L64X128.lea64(this.s + this.x0);
+		this.s = L64X128.M * this.s + this.a;
+		long q0 = this.x0;
+		long q1 = this.x1;
+		q1 ^= q0;
+		q0 = Long.rotateLeft(q0, 24) ^ q1 ^ (q1 << 16);
+		q1 = Long.rotateLeft(q1, 37);
+		this.x0 = q0;
+		this.x1 = q1;
+		return result;
+	}
+
+	@Override
+	public L64X128 split() {
+		return new L64X128(this);
+	}
+
+	private static long lea64(long z) {
+		z = (z ^ (z >>> 32)) * 0xdaba0b6eb09322e3L;
+		z = (z ^ (z >>> 32)) * 0xdaba0b6eb09322e3L;
+		return z ^ (z >>> 32);
+	}
+}
@@ -0,0 +1,83 @@
+package org.alindner.tools.common.random.source;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Access to features of newer Java versions. This is the Java 8 version; the jar contains a Java 17 version with the
+ * same methods in {@code META-INF/versions/17}, which is loaded instead on newer runtimes.
+ */
+public final class Platform {
+	private Platform() {
+	}
+
+	/**
+	 * adapt a random generator. On Java 8 this accepts {@link RandomSource}, {@link java.util.Random} and
+	 * {@link SplittableRandom}, from Java 17 on any {@code java.util.random.RandomGenerator}. Splits of the adapted
+	 * source use the split or jump function of the generator, if it has one.
+	 *
+	 * @param generator random generator
+	 *
+	 * @return source drawing from {@code generator}
+	 *
+	 * @throws IllegalArgumentException if the generator is not supported on this runtime
+	 */
+	public static RandomSource adapt(final Object generator) {
+		Objects.requireNonNull(generator);
+		if (generator instanceof RandomSource) {
+			return (RandomSource) generator;
+		}
+		if (generator instanceof java.util.Random) {
+			return RandomSource.of((java.util.Random) generator);
+		}
+		if (generator instanceof SplittableRandom) {
+			return new SplittableSource((SplittableRandom) generator);
+		}
+		throw new IllegalArgumentException("Unsupported random generator " + generator.getClass().getName());
+	}
+
+	/**
+	 * @return executor of the asynchronous methods without an explicit executor: a virtual thread per task executor
+	 * on Java 21+, the common fork join pool otherwise
+	 */
+	public static Executor asyncExecutor() {
+		return ForkJoinPool.commonPool();
+	}
+
+	/**
+	 * @return feature version of the runtime this class was built for, {@code 8} or {@code 17}
+	 */
+	public static int version() {
+		return 8;
+	}
+
+	private static final class SplittableSource implements RandomSource {
+		private final SplittableRandom random;
+
+		private SplittableSource(final SplittableRandom random) {
+			this.random = random;
+		}
+
+		@Override
+		public long nextLong() {
+			return this.random.nextLong();
+		}
+
+		@Override
+		public int nextInt(final int bound) {
+			return this.random.nextInt(bound);
+		}
+
+		@Override
+		public double nextDouble() {
+			return this.random.nextDouble();
+		}
+
+		@Override
+		public RandomSource split() {
+			return new SplittableSource(this.random.split());
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package org.alindner.tools.common.random.source;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Minimal source of random bits for the generators. Implementations are not synchronized: a source belongs to one
+ * thread, other threads get their own through {@link #split()}. Compared to a shared {@link java.util.Random} this
+ * avoids a compare and set per draw and allows stronger algorithms than a 48 bit LCG.
+ * <p>
+ * Everything is derived from {@link #nextLong()}.
+ */
+public interface RandomSource {
+	/**
+	 * @return 64 uniformly distributed bits
+	 */
+	long nextLong();
+
+	/**
+	 * create an independent source, e.g. for another thread. The returned source does not share state with this one;
+	 * the only exception is {@link #threadLocal()}, which is its own split, as every thread draws from its own state.
+	 *
+	 * @return new source
+	 */
+	RandomSource split();
+
+	/**
+	 * @return 32 uniformly distributed bits
+	 */
+	default int nextInt() {
+		return (int) (this.nextLong() >>> 32);
+	}
+
+	/**
+	 * uniformly distributed int in {@code [0, bound)}, using a multiplication with rejection of the biased remainder
+	 *
+	 * @param bound upper bound, exclusive
+	 *
+	 * @return random number
+	 *
+	 * @throws IllegalArgumentException if bound is not positive
+	 */
+	default int nextInt(final int bound) {
+		if (bound <= 0) {
+			throw new IllegalArgumentException("bound must be positive");
+		}
+		long product = (this.nextLong() >>> 32) * bound;
+		if ((product & 0xffffffffL) < bound) {
+			final long threshold = (0x100000000L - bound) % bound;
+			while ((product & 0xffffffffL) < threshold) {
+				product = (this.nextLong() >>> 32) * bound;
+			}
+		}
+		return (int) (product >>> 32);
+	}
+
+	/**
+	 * @return uniformly distributed double in {@code [0, 1)}
+	 */
+	default double nextDouble() {
+		return (this.nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	/**
+	 * provides a {@link java.util.Random} view of this source for APIs which expect one. The view shares the state of
+	 * this source and is not thread safe either.
+	 *
+	 * @return random view
+	 */
+	default java.util.Random asRandom() {
+		return new RandomView(this);
+	}
+
+	/**
+	 * adapt an existing {@link java.util.Random}, e.g. a {@link java.security.SecureRandom}
+	 *
+	 * @param random random
+	 *
+	 * @return source drawing from {@code random}
+	 */
+	static RandomSource of(final java.util.Random random) {
+		if (random instanceof RandomView) {
+			return ((RandomView) random).source;
+		}
+		return new JavaRandomSource(random);
+	}
+
+	/**
+	 * adapt any random generator of the runtime, e.g. a {@code java.util.random.RandomGenerator} on Java 17+. Splits
+	 * of the source use {@code SplittableGenerator.split()} or {@code JumpableGenerator.jump()} where available.
+	 *
+	 * @param generator random generator
+	 *
+	 * @return source drawing from {@code generator}
+	 *
+	 * @throws IllegalArgumentException if the generator is not supported on this runtime
+	 * @see Platform#adapt(Object)
+	 */
+	static RandomSource ofGenerator(final Object generator) {
+		return Platform.adapt(generator);
+	}
+
+	/**
+	 * @return source drawing from the {@link ThreadLocalRandom} of the calling thread, so it can be shared between
+	 * threads
+	 */
+	static RandomSource threadLocal() {
+		return JavaRandomSource.THREAD_LOCAL;
+	}
+
+	/**
+	 * @return cryptographically strong source which draws from a {@link SecureBlockSource} of the calling thread, so it
+	 * can be shared between threads
+	 */
+	static RandomSource secure() {
+		return SecureBlockSource.PER_THREAD;
+	}
+
+	/**
+	 * @param seed seed
+	 *
+	 * @return a seeded xoshiro256** source, the default choice for speed and quality
+	 */
+	static RandomSource xoshiro256(final long seed) {
+		return new Xoshiro256StarStar(seed);
+	}
+
+	/**
+	 * @param seed seed
+	 *
+	 * @return a seeded SplitMix64 source, the algorithm of {@link java.util.SplittableRandom}
+	 */
+	static RandomSource splitMix64(final long seed) {
+		return new SplitMix64(seed);
+	}
+
+	/**
+	 * @param seed seed
+	 *
+	 * @return a seeded L64X128 LXM source, the algorithm of the default {@code RandomGenerator} since Java 17
+	 */
+	static RandomSource l64x128(final long seed) {
+		return new L64X128(seed);
+	}
+}
@@ -0,0 +1,50 @@
+package org.alindner.tools.common.random.source;
+
+/**
+ * {@link java.util.Random} view of a {@link RandomSource}. Not thread safe, like the source.
+ */
+final class RandomView extends java.util.Random {
+	private static final long serialVersionUID = 2410869406128453961L;
+
+	final transient RandomSource source;
+
+	RandomView(final RandomSource source) {
+		super(0L);
+		this.source = source;
+	}
+
+	@Override
+	public synchronized void setSeed(final long seed) {
+		// the state lives in the source
+	}
+
+	@Override
+	protected int next(final int bits) {
+		return (int) (this.source.nextLong() >>> (Long.SIZE - bits));
+	}
+
+	@Override
+	public int nextInt() {
+		return this.source.nextInt();
+	}
+
+	@Override
+	public int nextInt(final int bound) {
+		return this.source.nextInt(bound);
+	}
+
+	@Override
+	public long nextLong() {
+		return this.source.nextLong();
+	}
+
+	@Override
+	public double nextDouble() {
+		return this.source.nextDouble();
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return this.source.nextLong() < 0;
+	}
+}
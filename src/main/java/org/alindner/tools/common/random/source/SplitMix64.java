@@ -0,0 +1,58 @@
+package org.alindner.tools.common.random.source;
+
+/**
+ * SplitMix64, the algorithm of {@link java.util.SplittableRandom}: a Weyl sequence finalized by {@link #mix64(long)}.
+ * Its finalizer is also the keyed hash of the counter based and permuting generators.
+ */
+public final class SplitMix64 implements RandomSource {
+	/**
+	 * the golden ratio increment of the Weyl sequence
+	 */
+	public static final long GAMMA = 0x9e3779b97f4a7c15L;
+
+	private final long gamma;
+	private       long state;
+
+	/**
+	 * @param seed seed
+	 */
+	public SplitMix64(final long seed) {
+		this(seed, SplitMix64.GAMMA);
+	}
+
+	private SplitMix64(final long seed, final long gamma) {
+		this.state = seed;
+		this.gamma = gamma;
+	}
+
+	/**
+	 * the finalizer of SplitMix64
+	 *
+	 * @param value value to mix
+	 *
+	 * @return mixed value
+	 */
+	public static long mix64(long value) {
+		value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+		value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+		return value ^ (value >>> 31);
+	}
+
+	@Override
+	public long nextLong() {
+		return SplitMix64.mix64(this.state += this.gamma);
+	}
+
+	/**
+	 * @return a source with a new seed and a new odd increment, like {@link java.util.SplittableRandom#split()}
+	 */
+	@Override
+	public SplitMix64 split() {
+		final long seed  = this.nextLong();
+		long       gamma = SplitMix64.mix64(this.state += this.gamma) | 1L;
+		if (Long.bitCount(gamma ^ (gamma >>> 1)) < 24) {
+			gamma ^= 0xaaaaaaaaaaaaaaaaL;
+		}
+		return new SplitMix64(seed, gamma);
+	}
+}
@@ -0,0 +1,80 @@
+package org.alindner.tools.common.random.source;
+
+/**
+ * xoshiro256** by Blackman and Vigna: 256 bits of state, a period of {@code 2^256 - 1} and no known statistical
+ * weakness, at the cost of a few shifts and xors per draw.
+ */
+public final class Xoshiro256StarStar implements RandomSource {
+	private static final long[] JUMP = {0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL};
+
+	private long s0;
+	private long s1;
+	private long s2;
+	private long s3;
+
+	/**
+	 * @param seed seed, expanded to the full state by {@link SplitMix64}
+	 */
+	public Xoshiro256StarStar(final long seed) {
+		final SplitMix64 expand = new SplitMix64(seed);
+		this.s0 = expand.nextLong();
+		this.s1 = expand.nextLong();
+		this.s2 = expand.nextLong();
+		this.s3 = expand.nextLong();
+	}
+
+	private Xoshiro256StarStar(final long s0, final long s1, final long s2, final long s3) {
+		this.s0 = s0;
+		this.s1 = s1;
+		this.s2 = s2;
+		this.s3 = s3;
+	}
+
+	@Override
+	public long nextLong() {
+		final long result = Long.rotateLeft(this.s1 * 5, 7) * 9;
+		final long t      = this.s1 << 17;
+		this.s2 ^= this.s0;
+		this.s3 ^= this.s1;
+		this.s1 ^= this.s2;
+		this.s0 ^= this.s3;
+		this.s2 ^= t;
+		this.s3 = Long.rotateLeft(this.s3, 45);
+		return result;
+	}
+
+	/**
+	 * @return a copy of this source, which then jumps {@code 2^128} draws ahead, so both never overlap
+	 */
+	@Override
+	public Xoshiro256StarStar split() {
+		final Xoshiro256StarStar copy = new Xoshiro256StarStar(this.s0, this.s1, this.s2, this.s3);
+		this.jump();
+		return copy;
+	}
+
+	/**
+	 * advance the state by {@code 2^128} draws
+	 */
+	public void jump() {
+		long t0 = 0;
+		long t1 = 0;
+		long t2 = 0;
+		long t3 = 0;
+		for (final long jump : Xoshiro256StarStar.JUMP) {
+			for (int bit = 0; bit < Long.SIZE; bit++) {
+				if ((jump & (1L << bit)) != 0) {
+					t0 ^= this.s0;
+					t1 ^= this.s1;
+					t2 ^= this.s2;
+					t3 ^= this.s3;
+				}
+				this.nextLong();
+			}
+		}
+		this.s0 = t0;
+		this.s1 = t1;
+		this.s2 = t2;
+		this.s3 = t3;
+	}
+}
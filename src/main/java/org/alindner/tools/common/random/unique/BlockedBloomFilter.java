@@ -0,0 +1,196 @@
+package org.alindner.tools.common.random.unique;
+
+import org.alindner.tools.common.random.source.SplitMix64;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A probabilistic uniqueness store for unique streams of billions of tokens, which needs a few bits per token instead
+ * of the tokens themselves. A token is never accepted twice, but a fresh token is rejected with about the
+ * {@link #estimatedFalsePositiveRate() false positive rate}, so a unique stream keeps drawing until it has enough
+ * tokens.
+ * <p>
+ * The filter is register blocked: all bits of a token are in a single 64 bit word, so a lookup reads one word and
+ * {@link #add(CharSequence)} sets all bits of the token with one compare and swap. Of two threads racing to add the
+ * same token exactly one succeeds, and threads never block each other. Blocking raises the false positive rate above
+ * the one of a classic Bloom filter with the same bits, as the tokens are not spread evenly over the words. The filter
+ * is therefore sized, and its rate estimated, with the number of tokens per word as a Poisson distributed variable.
+ */
+public class BlockedBloomFilter implements IUniquenessStore<CharSequence> {
+	private static final int MAX_HASHES = 16;
+
+	private final AtomicLongArray words;
+	private final int             hashes;
+	private final LongAdder       size    = new LongAdder();
+	private final LongAdder       setBits = new LongAdder();
+
+	/**
+	 * create a filter sized for {@code expected} tokens at a false positive rate of {@code falsePositiveRate}
+	 *
+	 * @param expected          expected number of tokens, the rate rises beyond it
+	 * @param falsePositiveRate target rate of fresh tokens which are taken for duplicates, e.g. {@code 0.01}
+	 *
+	 * @throws IllegalArgumentException if the rate is not in {@code (0, 1)} or the filter would be too large
+	 */
+	public BlockedBloomFilter(final long expected, final double falsePositiveRate) {
+		if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+			throw new IllegalArgumentException("Invalid false positive rate " + falsePositiveRate);
+		}
+		// the number of hashes which allows the most tokens per word at the requested rate
+		int    hashes = 1;
+		double load   = 0;
+		for (int k = 1; k <= BlockedBloomFilter.MAX_HASHES; k++) {
+			double low  = 0;
+			double high = Long.SIZE;
+			for (int i = 0; i < 50; i++) {
+				final double middle = (low + high) / 2;
+				if (BlockedBloomFilter.falsePositiveRate(middle, k) <= falsePositiveRate) {
+					low = middle;
+				} else {
+					high = middle;
+				}
+			}
+			if (low > load) {
+				load = low;
+				hashes = k;
+			}
+		}
+		final double words = Math.ceil(Math.max(1, expected) / load);
+		if (!(words <= Integer.MAX_VALUE - 8)) {
+			throw new IllegalArgumentException("A filter for " + expected + " tokens at " + falsePositiveRate + " is too large");
+		}
+		this.hashes = hashes;
+		this.words = new AtomicLongArray((int) words);
+	}
+
+	/**
+	 * adds a token to the filter
+	 *
+	 * @param token token
+	 *
+	 * @return {@code true} if at least one bit of the token was not set before, so the token is certainly new; of
+	 * several threads adding the same token only one gets {@code true}
+	 */
+	@Override
+	public boolean add(final CharSequence token) {
+		final long hash  = TokenCodec.fingerprint(token);
+		final int  index = this.word(hash);
+		final long mask  = this.mask(hash);
+		long       old;
+		do {
+			old = this.words.get(index);
+			if ((old & mask) == mask) {
+				return false;
+			}
+		} while (!this.words.compareAndSet(index, old, old | mask));
+		this.setBits.add(Long.bitCount(mask & ~old));
+		this.size.increment();
+		return true;
+	}
+
+	/**
+	 * @param token token
+	 *
+	 * @return {@code false} if the token was certainly not added, {@code true} if it probably was
+	 */
+	public boolean mightContain(final CharSequence token) {
+		final long hash = TokenCodec.fingerprint(token);
+		final long mask = this.mask(hash);
+		return (this.words.get(this.word(hash)) & mask) == mask;
+	}
+
+	/**
+	 * @return number of tokens accepted as new
+	 */
+	@Override
+	public long size() {
+		return this.size.sum();
+	}
+
+	/**
+	 * @return fraction of set bits
+	 */
+	public double estimatedFill() {
+		return (double) this.setBits.sum() / this.bits();
+	}
+
+	/**
+	 * @return estimated probability that the next fresh token is taken for a duplicate, from the number of tokens
+	 */
+	public double estimatedFalsePositiveRate() {
+		return BlockedBloomFilter.falsePositiveRate((double) this.size() / this.words.length(), this.hashes);
+	}
+
+	/**
+	 * @return number of bits of the filter
+	 */
+	public long bits() {
+		return (long) this.words.length() * Long.SIZE;
+	}
+
+	/**
+	 * @return number of bits set per token
+	 */
+	public int getHashes() {
+		return this.hashes;
+	}
+
+	/**
+	 * @return bytes reserved by the filter
+	 */
+	public long capacityBytes() {
+		return this.bits() / Byte.SIZE;
+	}
+
+	/**
+	 * the false positive rate of a filter with {@code load} tokens per word on average. A word holds a Poisson
+	 * distributed number of tokens {@code j}, each of which sets a given bit with probability {@code hashes / 64}.
+	 *
+	 * @param load   average number of tokens per word
+	 * @param hashes number of bits per token
+	 *
+	 * @return probability that all bits of a fresh token are set
+	 */
+	private static double falsePositiveRate(final double load, final int hashes) {
+		final double unset  = 1 - (double) hashes / Long.SIZE;
+		final int    limit  = (int) (load + 10 * Math.sqrt(load)) + 20;
+		double       weight = Math.exp(-load);
+		double       rate   = 0;
+		for (int j = 1; j <= limit; j++) {
+			weight *= load / j;
+			rate += weight * Math.pow(1 - Math.pow(unset, j), hashes);
+		}
+		return rate;
+	}
+
+	/**
+	 * @param hash fingerprint
+	 *
+	 * @return index of the word of {@code hash}
+	 */
+	private int word(final long hash) {
+		return (int) (((hash >>> 32) * this.words.length()) >>> 32);
+	}
+
+	/**
+	 * the bits of {@code hash} in its word, taken six bits at a time from a second, independent hash until there are
+	 * {@link #getHashes()} distinct ones
+	 *
+	 * @param hash fingerprint
+	 *
+	 * @return mask of {@link #getHashes()} bits
+	 */
+	private long mask(final long hash) {
+		long bits = hash;
+		long mask = 0;
+		for (int used = 60; Long.bitCount(mask) < this.hashes; used += 6) {
+			if (used == 60) {
+				bits = SplitMix64.mix64(bits);
+				used = 0;
+			}
+			mask |= 1L << (bits >>> used);
+		}
+		return mask;
+	}
+}
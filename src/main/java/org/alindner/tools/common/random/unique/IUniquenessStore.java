@@ -0,0 +1,22 @@
+package org.alindner.tools.common.random.unique;
+
+/**
+ * Remembers which tokens were already produced by a unique stream.
+ *
+ * @param <T> type of the tokens
+ */
+public interface IUniquenessStore<T> {
+	/**
+	 * adds a token to the store
+	 *
+	 * @param token token
+	 *
+	 * @return {@code true} if the token was not seen before
+	 */
+	boolean add(T token);
+
+	/**
+	 * @return number of tokens in the store
+	 */
+	long size();
+}
@@ -0,0 +1,222 @@
+package org.alindner.tools.common.random.unique;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * A compact set of tokens for unique streams. Tokens are packed by a {@link TokenCodec} and kept in primitive open
+ * addressing tables instead of a {@code HashSet<String>}, which costs 8 or 16 bytes per slot. The tables can live on
+ * the java heap or off heap in direct buffers. The set is split into segments, each synchronized on its own monitor,
+ * so parallel streams can add tokens concurrently. Tokens the codec can not pack are kept as their full 127 bit
+ * fingerprint, in separate two word segments if packed tokens need a single word.
+ */
+public class PackedTokenSet implements IUniquenessStore<CharSequence> {
+	private static final int   SEGMENT_BITS = 6;
+	private static final float LOAD_FACTOR  = 0.75f;
+	private static final int   MIN_SLOTS    = 16;
+	private static final int   MAX_SLOTS    = 1 << 26;
+
+	private final TokenCodec codec;
+	private final Segment[]  segments;
+	private final Segment[]  fingerprints;
+
+	/**
+	 * create a set
+	 *
+	 * @param codec    codec of the tokens
+	 * @param expected expected number of tokens, the set grows beyond it if needed
+	 * @param direct   {@code true} to keep the tables off heap
+	 */
+	public PackedTokenSet(final TokenCodec codec, final long expected, final boolean direct) {
+		this.codec = codec;
+		this.segments = new Segment[1 << PackedTokenSet.SEGMENT_BITS];
+		final long perSegment = Math.max(0, expected) >> PackedTokenSet.SEGMENT_BITS;
+		final int  slots      = PackedTokenSet.slotsFor(perSegment);
+		for (int i = 0; i < this.segments.length; i++) {
+			this.segments[i] = new Segment(codec.words(), slots, direct);
+		}
+		if (codec.words() == 1) {
+			this.fingerprints = new Segment[this.segments.length];
+			for (int i = 0; i < this.fingerprints.length; i++) {
+				this.fingerprints[i] = new Segment(2, PackedTokenSet.MIN_SLOTS, direct);
+			}
+		} else {
+			this.fingerprints = this.segments;
+		}
+	}
+
+	/**
+	 * create a set on the java heap
+	 *
+	 * @param symbols  symbols of the pool
+	 * @param length   length of the tokens
+	 * @param expected expected number of tokens
+	 *
+	 * @return heap based set
+	 */
+	public static PackedTokenSet onHeap(final char[] symbols, final int length, final long expected) {
+		return new PackedTokenSet(new TokenCodec(symbols, length), expected, false);
+	}
+
+	/**
+	 * create a set backed by direct memory
+	 *
+	 * @param symbols  symbols of the pool
+	 * @param length   length of the tokens
+	 * @param expected expected number of tokens
+	 *
+	 * @return off heap set
+	 */
+	public static PackedTokenSet offHeap(final char[] symbols, final int length, final long expected) {
+		return new PackedTokenSet(new TokenCodec(symbols, length), expected, true);
+	}
+
+	/**
+	 * create a set on the java heap which keeps the 127 bit fingerprints of tokens of any chars and length
+	 *
+	 * @param expected expected number of tokens
+	 *
+	 * @return heap based set
+	 * @see TokenCodec#fingerprinting()
+	 */
+	public static PackedTokenSet fingerprinting(final long expected) {
+		return new PackedTokenSet(TokenCodec.fingerprinting(), expected, false);
+	}
+
+	@Override
+	public boolean add(final CharSequence token) {
+		final long[] key = new long[2];
+		this.codec.encode(token, key);
+		// fingerprints have the sign bit set, packed tokens never
+		final Segment[] segments = key[0] < 0 ? this.fingerprints : this.segments;
+		final long      hash     = TokenCodec.hash(key[0], key[1]);
+		return segments[(int) (hash >>> (Long.SIZE - PackedTokenSet.SEGMENT_BITS))].add(key[0], key[1], (int) hash);
+	}
+
+	@Override
+	public long size() {
+		long size = 0;
+		for (final Segment segment : this.segments) {
+			size += segment.size();
+		}
+		if (this.fingerprints != this.segments) {
+			for (final Segment segment : this.fingerprints) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * @return bytes reserved by the tables
+	 */
+	public long capacityBytes() {
+		long bytes = 0;
+		for (final Segment segment : this.segments) {
+			bytes += segment.capacityBytes();
+		}
+		if (this.fingerprints != this.segments) {
+			for (final Segment segment : this.fingerprints) {
+				bytes += segment.capacityBytes();
+			}
+		}
+		return bytes;
+	}
+
+	private static int slotsFor(final long count) {
+		final long needed = (long) Math.ceil(count / PackedTokenSet.LOAD_FACTOR);
+		if (needed > PackedTokenSet.MAX_SLOTS) {
+			throw new IllegalArgumentException("Too many tokens: " + count);
+		}
+		return Math.max(PackedTokenSet.MIN_SLOTS, Integer.highestOneBit((int) Math.max(1, needed - 1)) << 1);
+	}
+
+	/**
+	 * a locked open addressing table with linear probing. A slot with only zero words is empty, the zero key itself is
+	 * tracked in a flag.
+	 */
+	private static final class Segment {
+		private final int        words;
+		private final boolean    direct;
+		private       LongBuffer table;
+		private       int        mask;
+		private       int        size;
+		private       boolean    zero;
+
+		Segment(final int words, final int slots, final boolean direct) {
+			this.words = words;
+			this.direct = direct;
+			this.table = this.allocate(slots);
+			this.mask = slots - 1;
+		}
+
+		synchronized boolean add(final long first, final long second, final int hash) {
+			if (first == 0 && second == 0) {
+				if (this.zero) {
+					return false;
+				}
+				this.zero = true;
+				this.size++;
+				return true;
+			}
+			if (!this.insert(this.table, this.mask, first, second, hash)) {
+				return false;
+			}
+			if (++this.size > (this.mask + 1) * PackedTokenSet.LOAD_FACTOR) {
+				this.grow();
+			}
+			return true;
+		}
+
+		synchronized long size() {
+			return this.size;
+		}
+
+		synchronized long capacityBytes() {
+			return (long) this.table.capacity() * Long.BYTES;
+		}
+
+		private boolean insert(final LongBuffer table, final int mask, final long first, final long second, final int hash) {
+			for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+				final int  index = slot * this.words;
+				final long a     = table.get(index);
+				final long b     = this.words == 1 ? 0 : table.get(index + 1);
+				if (a == 0 && b == 0) {
+					table.put(index, first);
+					if (this.words > 1) {
+						table.put(index + 1, second);
+					}
+					return true;
+				}
+				if (a == first && b == second) {
+					return false;
+				}
+			}
+		}
+
+		private void grow() {
+			final int slots = (this.mask + 1) << 1;
+			if (slots > PackedTokenSet.MAX_SLOTS) {
+				throw new IllegalStateException("The token set is full");
+			}
+			final LongBuffer table = this.allocate(slots);
+			for (int index = 0; index < this.table.capacity(); index += this.words) {
+				final long a = this.table.get(index);
+				final long b = this.words == 1 ? 0 : this.table.get(index + 1);
+				if (a != 0 || b != 0) {
+					this.insert(table, slots - 1, a, b, (int) TokenCodec.hash(a, b));
+				}
+			}
+			this.table = table;
+			this.mask = slots - 1;
+		}
+
+		private LongBuffer allocate(final int slots) {
+			final int count = slots * this.words;
+			return this.direct
+			       ? ByteBuffer.allocateDirect(count * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer()
+			       : LongBuffer.allocate(count);
+		}
+	}
+}
@@ -0,0 +1,344 @@
+package org.alindner.tools.common.random.unique;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A uniqueness store which survives restarts, e.g. for {@code uniqueStream(length, limit, store)} of a service which
+ * must never issue a token twice. Every token is reduced to a 64 bit {@link TokenCodec#fingerprint(CharSequence)
+ * fingerprint}, which is kept in an open addressing hash index in memory mapped files. The index is split by the
+ * fingerprint into independently locked shards, each one a file which doubles when it is three quarters full, so a
+ * lookup is a single probe sequence in mapped memory and growing never rewrites more than one shard.
+ * <p>
+ * The number of tokens is kept in the file headers, so {@link #open(Path)} maps the files without reading them.
+ * Tokens added since the last {@link #checkpoint()} survive a crash of the JVM, as they are in the page cache, but
+ * only checkpointed tokens survive a crash of the operating system. Two tokens with the same fingerprint count as one,
+ * so out of {@code n} tokens about {@code n^2 / 2^65} fresh ones are rejected, but no token is ever accepted twice.
+ * Parallel streams draw ahead, so they may record a few tokens which are never emitted; those are burnt, not
+ * reissued. A directory can be opened by a single store at a time.
+ */
+public final class PersistentTokenStore implements IUniquenessStore<CharSequence>, Closeable {
+	private static final int  SHARD_BITS    = 6;
+	private static final int  INITIAL_SLOTS = 4096;
+	private static final int  MAX_SLOTS     = 1 << 27;
+	private static final long MAGIC         = 0x544f4b454e535431L;
+	private static final long VERSION       = 1;
+	private static final int  HEADER_BYTES  = 4 * Long.BYTES;
+
+	private final Path        directory;
+	private final FileChannel lockChannel;
+	private final FileLock    lock;
+	private final Shard[]     shards;
+
+	private PersistentTokenStore(final Path directory, final FileChannel lockChannel, final FileLock lock) {
+		this.directory = directory;
+		this.lockChannel = lockChannel;
+		this.lock = lock;
+		this.shards = new Shard[1 << PersistentTokenStore.SHARD_BITS];
+	}
+
+	/**
+	 * open the store in {@code directory}, creating it if needed
+	 *
+	 * @param directory directory of the index files
+	 *
+	 * @return store
+	 *
+	 * @throws IOException           if the files can not be created or are corrupt
+	 * @throws IllegalStateException if the directory is already opened by another store
+	 */
+	public static PersistentTokenStore open(final Path directory) throws IOException {
+		Files.createDirectories(directory);
+		final FileChannel lockChannel = FileChannel.open(directory.resolve("lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		final FileLock    lock;
+		try {
+			lock = lockChannel.tryLock();
+		} catch (final OverlappingFileLockException e) {
+			lockChannel.close();
+			throw new IllegalStateException("The token store " + directory + " is already open", e);
+		}
+		if (lock == null) {
+			lockChannel.close();
+			throw new IllegalStateException("The token store " + directory + " is already open");
+		}
+		final PersistentTokenStore store = new PersistentTokenStore(directory, lockChannel, lock);
+		try {
+			for (int i = 0; i < store.shards.length; i++) {
+				store.shards[i] = Shard.open(directory.resolve(String.format("shard-%02d.idx", i)));
+			}
+		} catch (final IOException | RuntimeException e) {
+			store.close();
+			throw e;
+		}
+		return store;
+	}
+
+	/**
+	 * adds a token to the store
+	 *
+	 * @param token token
+	 *
+	 * @return {@code true} if the token was never added before
+	 *
+	 * @throws UncheckedIOException  if a shard can not grow
+	 * @throws IllegalStateException if a shard is full
+	 */
+	@Override
+	public boolean add(final CharSequence token) {
+		final long fingerprint = TokenCodec.fingerprint(token);
+		try {
+			return this.shard(fingerprint).add(fingerprint);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @param token token
+	 *
+	 * @return whether the token was added before
+	 */
+	public boolean contains(final CharSequence token) {
+		final long fingerprint = TokenCodec.fingerprint(token);
+		return this.shard(fingerprint).contains(fingerprint);
+	}
+
+	@Override
+	public long size() {
+		long size = 0;
+		for (final Shard shard : this.shards) {
+			size += shard.size();
+		}
+		return size;
+	}
+
+	/**
+	 * @return bytes of the index files
+	 */
+	public long capacityBytes() {
+		long bytes = 0;
+		for (final Shard shard : this.shards) {
+			bytes += shard.capacityBytes();
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return directory of the index files
+	 */
+	public Path getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * write all added tokens to the storage device
+	 */
+	public void checkpoint() {
+		for (final Shard shard : this.shards) {
+			shard.force();
+		}
+	}
+
+	/**
+	 * checkpoint and release the store
+	 *
+	 * @throws IOException if the lock can not be released
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			for (final Shard shard : this.shards) {
+				if (shard != null) {
+					shard.close();
+				}
+			}
+		} finally {
+			try {
+				this.lock.release();
+			} finally {
+				this.lockChannel.close();
+			}
+		}
+	}
+
+	private Shard shard(final long fingerprint) {
+		return this.shards[(int) (fingerprint >>> (Long.SIZE - PersistentTokenStore.SHARD_BITS))];
+	}
+
+	/**
+	 * one file of the index: a header of magic, version, number of slots and number of tokens followed by the slots.
+	 * A slot with the fingerprint {@code 0} is empty.
+	 */
+	private static final class Shard {
+		private final Path             path;
+		private       MappedByteBuffer buffer;
+		private       int              mask;
+		private       long             size;
+		private       boolean          closed;
+
+		private Shard(final Path path, final MappedByteBuffer buffer) {
+			this.path = path;
+			this.buffer = buffer;
+			this.mask = (int) buffer.getLong(2 * Long.BYTES) - 1;
+			this.size = buffer.getLong(3 * Long.BYTES);
+		}
+
+		static Shard open(final Path path) throws IOException {
+			if (!Files.exists(path)) {
+				return new Shard(path, Shard.create(path, PersistentTokenStore.INITIAL_SLOTS));
+			}
+			final MappedByteBuffer buffer;
+			try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				if (channel.size() < PersistentTokenStore.HEADER_BYTES) {
+					throw new IOException("Corrupt token store file " + path);
+				}
+				buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+			}
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			final long slots = buffer.getLong(2 * Long.BYTES);
+			if (buffer.getLong(0) != PersistentTokenStore.MAGIC
+			    || buffer.getLong(Long.BYTES) != PersistentTokenStore.VERSION
+			    || Long.bitCount(slots) != 1
+			    || slots > PersistentTokenStore.MAX_SLOTS
+			    || buffer.capacity() != PersistentTokenStore.HEADER_BYTES + slots * Long.BYTES) {
+				throw new IOException("Corrupt token store file " + path);
+			}
+			return new Shard(path, buffer);
+		}
+
+		/**
+		 * create an empty shard file
+		 *
+		 * @param path  file
+		 * @param slots number of slots, a power of two
+		 *
+		 * @return mapped file
+		 *
+		 * @throws IOException if the file can not be created
+		 */
+		private static MappedByteBuffer create(final Path path, final int slots) throws IOException {
+			final MappedByteBuffer buffer;
+			try (final FileChannel channel = FileChannel.open(
+					path,
+					StandardOpenOption.CREATE,
+					StandardOpenOption.READ,
+					StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING
+			)) {
+				buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, PersistentTokenStore.HEADER_BYTES + (long) slots * Long.BYTES);
+			}
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putLong(0, PersistentTokenStore.MAGIC);
+			buffer.putLong(Long.BYTES, PersistentTokenStore.VERSION);
+			buffer.putLong(2 * Long.BYTES, slots);
+			buffer.putLong(3 * Long.BYTES, 0);
+			return buffer;
+		}
+
+		synchronized boolean add(final long fingerprint) throws IOException {
+			this.checkOpen();
+			if (!Shard.insert(this.buffer, this.mask, fingerprint)) {
+				return false;
+			}
+			this.buffer.putLong(3 * Long.BYTES, ++this.size);
+			if (this.size > (this.mask + 1L) * 3 / 4) {
+				this.grow();
+			}
+			return true;
+		}
+
+		synchronized boolean contains(final long fingerprint) {
+			this.checkOpen();
+			for (int slot = (int) fingerprint & this.mask; ; slot = (slot + 1) & this.mask) {
+				final long value = this.buffer.getLong(Shard.offset(slot));
+				if (value == 0) {
+					return false;
+				}
+				if (value == fingerprint) {
+					return true;
+				}
+			}
+		}
+
+		synchronized long size() {
+			return this.size;
+		}
+
+		synchronized long capacityBytes() {
+			return this.buffer.capacity();
+		}
+
+		synchronized void force() {
+			if (!this.closed) {
+				this.buffer.force();
+			}
+		}
+
+		synchronized void close() {
+			if (!this.closed) {
+				this.buffer.force();
+				this.closed = true;
+				this.buffer = null;
+			}
+		}
+
+		/**
+		 * rehash into a file of twice the size, which atomically replaces the current one
+		 *
+		 * @throws IOException if the new file can not be written
+		 */
+		private void grow() throws IOException {
+			final int slots = (this.mask + 1) << 1;
+			if (slots > PersistentTokenStore.MAX_SLOTS) {
+				throw new IllegalStateException("The token store is full");
+			}
+			final Path             next   = this.path.resolveSibling(this.path.getFileName() + ".grow");
+			final MappedByteBuffer buffer = Shard.create(next, slots);
+			for (int slot = 0; slot <= this.mask; slot++) {
+				final long value = this.buffer.getLong(Shard.offset(slot));
+				if (value != 0) {
+					Shard.insert(buffer, slots - 1, value);
+				}
+			}
+			buffer.putLong(3 * Long.BYTES, this.size);
+			buffer.force();
+			Files.move(next, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			this.buffer = buffer;
+			this.mask = slots - 1;
+		}
+
+		private void checkOpen() {
+			if (this.closed) {
+				throw new IllegalStateException("The token store is closed");
+			}
+		}
+
+		private static boolean insert(final MappedByteBuffer buffer, final int mask, final long fingerprint) {
+			for (int slot = (int) fingerprint & mask; ; slot = (slot + 1) & mask) {
+				final int  offset = Shard.offset(slot);
+				final long value  = buffer.getLong(offset);
+				if (value == 0) {
+					buffer.putLong(offset, fingerprint);
+					return true;
+				}
+				if (value == fingerprint) {
+					return false;
+				}
+			}
+		}
+
+		private static int offset(final int slot) {
+			return PersistentTokenStore.HEADER_BYTES + slot * Long.BYTES;
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package org.alindner.tools.common.random.unique;
+
+import org.alindner.tools.common.random.source.SplitMix64;
+
+import java.util.Arrays;
+
+/**
+ * Packs fixed length tokens over a char pool into one or two longs. A token is read as a number in base
+ * {@code pool size}; as many digits as fit into 63 bits go into one long, e.g. 10 alphanumeric chars or 18 digits. If
+ * two longs are not enough for the token length, a 127 bit fingerprint is used instead. Tokens which do not match the
+ * pool or the length are fingerprinted as well; fingerprints have the sign bit of the first word set, so they never
+ * equal a packed token.
+ */
+public final class TokenCodec {
+	private static final long SEED_FIRST  = 0x243f6a8885a308d3L;
+	private static final long SEED_SECOND = 0x13198a2e03707344L;
+
+	private final int[]   digits;
+	private final int     radix;
+	private final int     length;
+	private final int     split;
+	private final boolean exact;
+
+	/**
+	 * create a codec
+	 *
+	 * @param symbols symbols of the pool
+	 * @param length  length of the tokens
+	 *
+	 * @throws IllegalArgumentException if the pool is empty
+	 */
+	public TokenCodec(final char[] symbols, final int length) {
+		if (symbols.length == 0) {
+			throw new IllegalArgumentException("A char pool needs at least one symbol");
+		}
+		char max = 0;
+		for (final char symbol : symbols) {
+			max = (char) Math.max(max, symbol);
+		}
+		this.digits = new int[max + 1];
+		Arrays.fill(this.digits, -1);
+		for (int i = symbols.length - 1; i >= 0; i--) {
+			this.digits[symbols[i]] = i;
+		}
+		this.radix = Math.max(2, symbols.length);
+		this.length = length;
+
+		int  perWord = 0;
+		long power   = 1;
+		while (power <= Long.MAX_VALUE / this.radix) {
+			power *= this.radix;
+			perWord++;
+		}
+		this.split = Math.min(length, perWord);
+		this.exact = length <= 2 * perWord;
+	}
+
+	private TokenCodec() {
+		this.digits = new int[0];
+		this.radix = 2;
+		this.length = -1;
+		this.split = 0;
+		this.exact = false;
+	}
+
+	/**
+	 * create a codec which fingerprints every token, for tokens of any chars and length
+	 *
+	 * @return codec
+	 */
+	public static TokenCodec fingerprinting() {
+		return new TokenCodec();
+	}
+
+	/**
+	 * @return number of longs needed per token
+	 */
+	public int words() {
+		return this.exact && this.length == this.split ? 1 : 2;
+	}
+
+	/**
+	 * @return {@code true} if tokens are packed without loss, otherwise they are fingerprinted
+	 */
+	public boolean isExact() {
+		return this.exact;
+	}
+
+	/**
+	 * writes the key of {@code token} into {@code key}
+	 *
+	 * @param token token
+	 * @param key   array of at least two longs, the second one is {@code 0} if a single word is enough
+	 */
+	public void encode(final CharSequence token, final long[] key) {
+		if (this.exact && token.length() == this.length) {
+			final long first  = this.pack(token, 0, this.split);
+			final long second = this.split == this.length ? 0 : this.pack(token, this.split, this.length);
+			if (first >= 0 && second >= 0) {
+				key[0] = first;
+				key[1] = second;
+				return;
+			}
+		}
+		key[0] = TokenCodec.hash(token, TokenCodec.SEED_FIRST) | Long.MIN_VALUE;
+		key[1] = TokenCodec.hash(token, TokenCodec.SEED_SECOND);
+	}
+
+	/**
+	 * well distributed 64 bit hash of a key
+	 *
+	 * @param first  first word
+	 * @param second second word
+	 *
+	 * @return hash
+	 */
+	public static long hash(final long first, final long second) {
+		return SplitMix64.mix64(first + SplitMix64.mix64(second + TokenCodec.SEED_SECOND));
+	}
+
+	/**
+	 * well distributed 64 bit fingerprint of a token, independent of any pool or length. It is never {@code 0}.
+	 *
+	 * @param token token
+	 *
+	 * @return fingerprint
+	 */
+	public static long fingerprint(final CharSequence token) {
+		final long hash = TokenCodec.hash(token, TokenCodec.SEED_FIRST);
+		return hash == 0 ? 1 : hash;
+	}
+
+	private long pack(final CharSequence token, final int from, final int to) {
+		long value = 0;
+		for (int i = to - 1; i >= from; i--) {
+			final char c = token.charAt(i);
+			if (c >= this.digits.length || this.digits[c] < 0) {
+				return -1;
+			}
+			value = value * this.radix + this.digits[c];
+		}
+		return value;
+	}
+
+	private static long hash(final CharSequence token, final long seed) {
+		long value = seed ^ token.length();
+		for (int i = 0; i < token.length(); i++) {
+			value = (value ^ token.charAt(i)) * 0x100000001b3L;
+			value ^= value >>> 29;
+		}
+		return SplitMix64.mix64(value);
+	}
+}
@@ -0,0 +1,118 @@
+package org.alindner.tools.common.random.source;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+
+/**
+ * Access to features of newer Java versions. This is the Java 17 version of the class, used from the
+ * {@code META-INF/versions/17} directory of the multi release jar.
+ */
+public final class Platform {
+	private static final Executor ASYNC = Platform.virtualThreads();
+
+	private Platform() {
+	}
+
+	/**
+	 * adapt a random generator. On Java 8 this accepts {@link RandomSource}, {@link java.util.Random} and
+	 * {@link java.util.SplittableRandom}, from Java 17 on any {@link RandomGenerator}. Splits of the adapted source
+	 * use the split or jump function of the generator, if it has one.
+	 *
+	 * @param generator random generator
+	 *
+	 * @return source drawing from {@code generator}
+	 *
+	 * @throws IllegalArgumentException if the generator is not supported on this runtime
+	 */
+	public static RandomSource adapt(final Object generator) {
+		Objects.requireNonNull(generator);
+		if (generator instanceof RandomSource) {
+			return (RandomSource) generator;
+		}
+		if (generator instanceof java.util.Random) {
+			return RandomSource.of((java.util.Random) generator);
+		}
+		if (generator instanceof RandomGenerator) {
+			return new GeneratorSource((RandomGenerator) generator);
+		}
+		throw new IllegalArgumentException("Unsupported random generator " + generator.getClass().getName());
+	}
+
+	/**
+	 * @return executor of the asynchronous methods without an explicit executor: a virtual thread per task executor
+	 * on Java 21+, the common fork join pool otherwise
+	 */
+	public static Executor asyncExecutor() {
+		return Platform.ASYNC;
+	}
+
+	/**
+	 * @return feature version of the runtime this class was built for, {@code 8} or {@code 17}
+	 */
+	public static int version() {
+		return 17;
+	}
+
+	/**
+	 * the virtual thread API is final since Java 21, so it is looked up instead of linked against
+	 */
+	private static Executor virtualThreads() {
+		try {
+			final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (final ReflectiveOperationException e) {
+			return ForkJoinPool.commonPool();
+		}
+	}
+
+	private static final class GeneratorSource implements RandomSource {
+		private final RandomGenerator generator;
+
+		private GeneratorSource(final RandomGenerator generator) {
+			this.generator = generator;
+		}
+
+		@Override
+		public long nextLong() {
+			return this.generator.nextLong();
+		}
+
+		@Override
+		public int nextInt() {
+			return this.generator.nextInt();
+		}
+
+		@Override
+		public int nextInt(final int bound) {
+			return this.generator.nextInt(bound);
+		}
+
+		@Override
+		public double nextDouble() {
+			return this.generator.nextDouble();
+		}
+
+		/**
+		 * split with {@link RandomGenerator.SplittableGenerator#split()}, or hand out a copy and jump ahead with
+		 * {@link RandomGenerator.JumpableGenerator#jump()}. Other generators seed a xoshiro256** source.
+		 */
+		@Override
+		public RandomSource split() {
+			if (this.generator instanceof RandomGenerator.SplittableGenerator) {
+				return new GeneratorSource(((RandomGenerator.SplittableGenerator) this.generator).split());
+			}
+			if (this.generator instanceof RandomGenerator.JumpableGenerator) {
+				final RandomGenerator.JumpableGenerator jumpable = (RandomGenerator.JumpableGenerator) this.generator;
+				final RandomGenerator                   copy     = jumpable.copy();
+				jumpable.jump();
+				return new GeneratorSource(copy);
+			}
+			return RandomSource.xoshiro256(this.generator.nextLong());
+		}
+	}
+}
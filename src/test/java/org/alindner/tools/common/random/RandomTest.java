@@ -1,17 +1,38 @@
 package org.alindner.tools.common.random;
 
 import org.alindner.tools.common.random.generator.Generator;
+import org.alindner.tools.common.random.generator.IRandomAccessGenerator;
+import org.alindner.tools.common.random.generator.IRandomStringGenerator;
+import org.alindner.tools.common.random.generator.PermutationStringGenerator;
 import org.alindner.tools.common.random.generator.RandomNumberGenerator;
 import org.alindner.tools.common.random.generator.RandomStringGenerator;
+import org.alindner.tools.common.random.generator.WeightedCharPool;
+import org.alindner.tools.common.random.source.RandomSource;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -60,6 +81,12 @@ class RandomTest {
 				.build(length -> "aa" + Generator.alphanumeric().next(length - 4) + "aa")
 				.stream(13, 8)
 				.forEach(s -> assertTrue(s.startsWith("aa") && s.endsWith("aa")));
+		assertEquals(
+				1000,
+				Random.<CharSequence>build(length -> length % 2 == 0 ? "a" : new StringBuilder("b"))
+				      .parallelStream(LengthDistribution.uniform(2, 3), 1000)
+				      .count()
+		);
 	}
 
 	@Test
@@ -104,6 +131,156 @@ class RandomTest {
 		keys4.forEach(s -> assertTrue(s.startsWith("a")));
 	}
 
+	@Test
+	void streamParallelSplitsRandomState() {
+		final int            size   = 200000;
+		final Stream<String> stream = Random.build(Generator.alphanumeric()).parallelStream(this.keyLength, size);
+		assertTrue(stream.spliterator().hasCharacteristics(Spliterator.SIZED));
+
+		final Set<String> keys = Random.build(Generator.alphanumeric())
+		                               .parallelStream(this.keyLength, size)
+		                               .collect(Collectors.toSet());
+		assertEquals(size, keys.size());
+		keys.forEach(s -> assertEquals(this.keyLength, s.length()));
+
+		assertEquals(size, Random.streamParallel(size, 5, Generator.numbers()).count());
+		assertThrows(IllegalArgumentException.class, () -> Random.build().parallelStream(5, -1));
+	}
+
+	@Test
+	void rangeStream() {
+		final List<String> run = Random.build(Generator.randomAccess(7))
+		                               .stream(this.keyLength, this.count)
+		                               .collect(Collectors.toList());
+		assertEquals(run, Random.build(Generator.randomAccess(7))
+		                        .rangeStream(this.keyLength, 0, this.count)
+		                        .collect(Collectors.toList()));
+		assertEquals(run.subList(500, 700), Random.build(Generator.randomAccess(7))
+		                                          .parallelRangeStream(this.keyLength, 500, 700)
+		                                          .collect(Collectors.toList()));
+		assertEquals(run.get(999), Generator.randomAccess(7).at(999, this.keyLength));
+		assertNotEquals(run.get(999), Generator.randomAccess(8).at(999, this.keyLength));
+		assertEquals(this.count, new HashSet<>(run).size());
+
+		final IRandomAccessGenerator<String> counter = Generator.randomAccess(7);
+		assertEquals(run.get(0), Random.build(counter).stream(this.keyLength).findFirst().orElse(null));
+		assertEquals(run.subList(1, 6), Random.build(counter).stream(this.keyLength).limit(5).collect(Collectors.toList()));
+		assertEquals(run.get(6), counter.next(this.keyLength));
+
+		assertThrows(IllegalStateException.class, () -> Random.build().rangeStream(5, 0, 10));
+	}
+
+	@Test
+	void permutedUniqueStream() throws NoSuchAlgorithmException {
+		final Set<String> all = Random.build(new RandomStringGenerator("abc"::toCharArray))
+		                              .permutedUniqueStream(4, 81)
+		                              .collect(Collectors.toSet());
+		assertEquals(81, all.size());
+		all.forEach(s -> assertTrue(s.matches("[abc]{4}")));
+		assertThrows(
+				IllegalArgumentException.class,
+				() -> Random.build(new RandomStringGenerator("abc"::toCharArray)).permutedUniqueStream(4, 82)
+		);
+
+		final int size = 200000;
+		assertEquals(size, Random.build(Generator.alphanumeric())
+		                         .parallelPermutedUniqueStream(30, size)
+		                         .collect(Collectors.toSet())
+		                         .size());
+		assertEquals(
+				Random.build(Generator.permutation(3)).permutedUniqueStream(12, this.count).collect(Collectors.toList()),
+				Random.build(Generator.permutation(3)).parallelPermutedUniqueStream(12, this.count).collect(Collectors.toList())
+		);
+		assertThrows(IllegalStateException.class, () -> Random.build(Generator.integerNumbers()).permutedUniqueStream(5, 10));
+		assertThrows(IllegalArgumentException.class, () -> Random.build(Generator.weighted(WeightedCharPool.ENGLISH)).permutedUniqueStream(5, 10));
+
+		// the key is drawn from the random of the generator, secure or seeded
+		final SecureRandom first  = SecureRandom.getInstance("SHA1PRNG");
+		final SecureRandom second = SecureRandom.getInstance("SHA1PRNG");
+		first.setSeed(7);
+		second.setSeed(7);
+		assertEquals(
+				Random.build(new RandomStringGenerator(new Generator.AlphaNumericPool(), first)).permutedUniqueStream(12, 100).collect(Collectors.toList()),
+				Random.build(new RandomStringGenerator(new Generator.AlphaNumericPool(), second)).permutedUniqueStream(12, 100).collect(Collectors.toList())
+		);
+		assertEquals(
+				Random.build(Generator.alphanumeric(RandomSource.xoshiro256(1))).permutedUniqueStream(12, 100).collect(Collectors.toList()),
+				Random.build(Generator.alphanumeric(RandomSource.xoshiro256(1))).permutedUniqueStream(12, 100).collect(Collectors.toList())
+		);
+		assertNotEquals(
+				Random.build(Generator.alphanumeric(RandomSource.xoshiro256(1))).permutedUniqueStream(12, 100).collect(Collectors.toList()),
+				Random.build(Generator.alphanumeric(RandomSource.xoshiro256(2))).permutedUniqueStream(12, 100).collect(Collectors.toList())
+		);
+	}
+
+	@Test
+	void partitionedUniqueStream() {
+		final Set<String> all = new HashSet<>();
+		for (int node = 0; node < 3; node++) {
+			final List<String> partition = Random.build(new RandomStringGenerator("ab"::toCharArray))
+			                                     .partitionedUniqueStream(10, node == 0 ? 342 : 341, 7, node, 3)
+			                                     .collect(Collectors.toList());
+			partition.forEach(s -> assertTrue(s.matches("[ab]{10}")));
+			all.addAll(partition);
+		}
+		assertEquals(1024, all.size());
+		assertThrows(
+				IllegalArgumentException.class,
+				() -> Random.build(new RandomStringGenerator("ab"::toCharArray)).partitionedUniqueStream(10, 342, 7, 1, 3)
+		);
+		final Random.RandomStream<String> stream  = Random.build(new RandomStringGenerator("ab"::toCharArray));
+		final List<String>                first   = stream.partitionedUniqueStream(10, 100, 7, 1, 3).collect(Collectors.toList());
+		final List<String>                resumed = stream.partitionedUniqueStream(10, 100, 241, 7, 1, 3).collect(Collectors.toList());
+		assertEquals(first, stream.partitionedUniqueStream(10, 0, 100, 7, 1, 3).collect(Collectors.toList()));
+		assertEquals(
+				stream.partitionedUniqueStream(10, 341, 7, 1, 3).skip(100).collect(Collectors.toList()),
+				resumed
+		);
+		assertThrows(IllegalArgumentException.class, () -> stream.partitionedUniqueStream(10, 100, 242, 7, 1, 3));
+		assertThrows(IllegalArgumentException.class, () -> stream.partitionedUniqueStream(10, -1, 1, 7, 1, 3));
+		assertThrows(IllegalArgumentException.class, () -> Generator.partition(1, 3, 3));
+		assertThrows(IllegalArgumentException.class, () -> Generator.partition(1, 0, 0));
+
+		final Set<String> cluster = new HashSet<>();
+		for (int node = 0; node < 40; node++) {
+			cluster.addAll(Random.build().parallelPartitionedUniqueStream(8, 5000, 11, node, 40).collect(Collectors.toList()));
+		}
+		assertEquals(40 * 5000, cluster.size());
+
+		final PermutationStringGenerator nested = Generator.partition(5, 1, 2).partition(1, 2);
+		assertEquals(3, nested.getNode());
+		assertEquals(4, nested.getNodes());
+		assertEquals(Generator.partition(5, 3, 4).at(17, 12), nested.at(17, 12));
+		assertEquals(Generator.permutation(5).at(3 + 17 * 4, 12), nested.at(17, 12));
+	}
+
+	@Test
+	void writeTo(@TempDir final Path dir) throws IOException {
+		final Path first  = dir.resolve("first.txt");
+		final Path second = dir.resolve("second.txt");
+		final int  size   = 100000;
+		assertEquals(size * 13L, Random.build(Generator.alphanumeric()).writeTo(first, size, 12, 42));
+		assertEquals(size * 13L, Files.size(first));
+		final List<String> lines = Files.readAllLines(first, StandardCharsets.US_ASCII);
+		assertEquals(size, lines.size());
+		lines.forEach(s -> assertTrue(s.matches("[A-Za-z0-9]{12}")));
+
+		Random.write(second, size, 12, new Generator.AlphaNumericPool(), 42);
+		assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+		Random.write(second, 10, 12, new Generator.AlphaNumericPool(), 43);
+		assertEquals(130, Files.size(second));
+		Random.write(second, size, 12, new Generator.AlphaNumericPool(), 43);
+		assertFalse(Arrays.equals(Files.readAllBytes(first), Files.readAllBytes(second)));
+
+		Random.build(Generator.secureAlphanumeric()).writeTo(first, 10, 12, 42);
+		Random.build(Generator.secureAlphanumeric()).writeTo(second, 10, 12, 42);
+		assertFalse(Arrays.equals(Files.readAllBytes(first), Files.readAllBytes(second)));
+		assertThrows(IllegalArgumentException.class, () -> Random.build(Generator.unicode()).writeTo(second, 10, 5));
+		assertThrows(IllegalArgumentException.class, () -> Random.build(Generator.randomAccess(42)).writeTo(second, 10, 5));
+		assertThrows(IllegalArgumentException.class, () -> Random.build(Generator.weighted(WeightedCharPool.ENGLISH)).writeTo(second, 10, 5));
+		assertThrows(IllegalArgumentException.class, () -> Random.write(second, 10, 5, WeightedCharPool.ENGLISH, 42));
+	}
+
 	@Test
 	void streamUnique() {
 		assertEquals(
@@ -172,16 +349,144 @@ class RandomTest {
 		list2.forEach(s -> assertTrue(s.startsWith("a")));
 	}
 
+	@Test
+	void nextInto() {
+		final RandomStringGenerator generator = new RandomStringGenerator("89"::toCharArray);
+
+		final char[] buffer = new char[12];
+		assertEquals(10, generator.nextInto(buffer, 2, 10));
+		assertEquals(0, buffer[0]);
+		assertTrue(new String(buffer, 2, 10).matches("[89]{10}"));
+		assertThrows(IndexOutOfBoundsException.class, () -> generator.nextInto(buffer, 3, 10));
+
+		final CharBuffer charBuffer = CharBuffer.allocate(20);
+		generator.nextInto(charBuffer, 7);
+		generator.nextInto(charBuffer, 7);
+		assertEquals(14, charBuffer.position());
+		charBuffer.flip();
+		assertTrue(charBuffer.toString().matches("[89]{14}"));
+
+		final StringBuilder builder = new StringBuilder("x");
+		generator.nextInto(builder, 5);
+		assertTrue(builder.toString().matches("x[89]{5}"));
+
+		final StringBuilder lambdaBuilder = new StringBuilder();
+		assertEquals(4, ((IRandomStringGenerator<String>) length -> "abcd").nextInto(lambdaBuilder, 4));
+		assertEquals("abcd", lambdaBuilder.toString());
+	}
+
+	@Test
+	void uniformSymbols() {
+		for (final String pool : new String[]{"abc", "abcdefgh", "0123456789", String.valueOf(new Generator.AlphaNumericPool().getCharacters())}) {
+			final RandomStringGenerator generator = new RandomStringGenerator(pool::toCharArray, new java.util.Random(42));
+			final int[]                 counts    = new int[128];
+			final int                   perSymbol = 20000;
+			for (final char c : generator.next(perSymbol * pool.length()).toCharArray()) {
+				counts[c]++;
+			}
+			for (final char c : pool.toCharArray()) {
+				assertEquals(perSymbol, counts[c], perSymbol * 0.05, pool + ": " + c);
+			}
+		}
+	}
+
 	@Test
 	void get() {
 		assertFalse(Random.get(5).isEmpty());
 	}
 
+	@Test
+	void listAsync() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<String> list = Random.build().listAsync(this.keyLength, 10001, executor, 1000).get();
+			assertEquals(10001, list.size());
+			list.forEach(s -> assertEquals(this.keyLength, s.length()));
+			assertEquals(10001, new HashSet<>(list).size());
+
+			assertEquals(50, Random.listAsync(50, 5, executor, Generator.numbers()).get().size());
+			assertTrue(Random.build().listAsync(5, 0, executor).get().isEmpty());
+			assertThrows(IllegalArgumentException.class, () -> Random.build().listAsync(5, 10, executor, 0));
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(10000, Random.build().listAsync(this.keyLength, 10000).get().size());
+	}
+
+	@Test
+	void tokenRingBuffer() throws InterruptedException {
+		final TokenRingBuffer<Integer> buffer = new TokenRingBuffer<>(100);
+		assertEquals(128, buffer.capacity());
+		assertNull(buffer.poll());
+
+		final Set<Integer> taken   = ConcurrentHashMap.newKeySet();
+		final Thread[]     threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			final int first = t * 10000;
+			threads[t] = new Thread(() -> {
+				for (int i = first; i < first + 10000; i++) {
+					while (!buffer.offer(i)) {
+						final Integer value = buffer.poll();
+						if (value != null) {
+							assertTrue(taken.add(value));
+						}
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		for (Integer value = buffer.poll(); value != null; value = buffer.poll()) {
+			assertTrue(taken.add(value));
+		}
+		assertEquals(40000, taken.size());
+	}
+
+	@Test
+	void tokenPool() throws InterruptedException {
+		final TokenPool<String> pool = new TokenPool<>(Generator.alphanumeric(), this.keyLength, 64);
+		try {
+			assertEquals(48, pool.getLowWatermark());
+			assertEquals(64, pool.getHighWatermark());
+			for (int i = 0; i < 100 && pool.size() < 64; i++) {
+				Thread.sleep(10);
+			}
+			assertEquals(64, pool.size());
+			for (int i = 0; i < 10000; i++) {
+				assertEquals(this.keyLength, pool.get().length());
+			}
+		} finally {
+			pool.close();
+		}
+		// a closed pool generates inline
+		for (int i = 0; i < 100; i++) {
+			assertEquals(this.keyLength, pool.get().length());
+		}
+		assertTrue(pool.getInlineCount() > 0);
+		assertThrows(IllegalArgumentException.class, () -> new TokenPool<>(Generator.alphanumeric(), 10, 10, 10, 10, 1));
+	}
+
 	@Test
 	void getNumber() {
 		assertNotNull(Random.getNumber(5));
 	}
 
+	@Test
+	void primitiveNumbers() {
+		assertEquals(12, Long.toString(Random.getLong(12)).length());
+		assertEquals(this.count, Random.longStream(18, this.count)
+		                               .parallel()
+		                               .filter(l -> Long.toString(l).length() == 18)
+		                               .count());
+		assertEquals(this.count, Random.intStream(9, this.count)
+		                               .filter(i -> Integer.toString(i).length() == 9)
+		                               .count());
+		assertThrows(IllegalArgumentException.class, () -> Random.intStream(10, 1));
+		assertThrows(IllegalArgumentException.class, () -> Random.getLong(0));
+	}
+
 	@Test
 	void build() {
 		final int keyLength = 50;
@@ -209,4 +514,47 @@ class RandomTest {
 		Random.String.build().stream(13, 8).forEach(System.out::println);
 //		Random.String.build().stream(13).forEach(System.out::println);
 	}
-}
\ No newline at end of file
+
+	@Test
+	void lengthDistribution() {
+		final java.util.Random   random = new java.util.Random(1);
+		final int[]              counts = new int[12];
+		final LengthDistribution zipf   = LengthDistribution.zipf(2, 11, 1);
+		for (int i = 0; i < 100000; i++) {
+			counts[zipf.next(random)]++;
+		}
+		assertEquals(0, counts[0] + counts[1]);
+		for (int length = 3; length <= 11; length++) {
+			assertEquals(counts[2] / (length - 1.0), counts[length], counts[2] * 0.02);
+		}
+		assertEquals(7, LengthDistribution.histogram(7, 1, 0).next(random));
+		assertThrows(IllegalArgumentException.class, () -> LengthDistribution.uniform(5, 4));
+		assertThrows(IllegalArgumentException.class, () -> LengthDistribution.zipf(2, 4, -1));
+		assertThrows(IllegalArgumentException.class, () -> Random.build().stream(LengthDistribution.uniform(1, 4), 10));
+		assertEquals(
+				Random.build(Generator.alphanumeric(RandomSource.xoshiro256(1))).stream(LengthDistribution.uniform(2, 9), 100).collect(Collectors.toList()),
+				Random.build(Generator.alphanumeric(RandomSource.xoshiro256(1))).stream(LengthDistribution.uniform(2, 9), 100).collect(Collectors.toList())
+		);
+
+		final Map<Integer, Integer> histogram = new HashMap<>();
+		histogram.put(4, 1);
+		histogram.put(8, 3);
+		final List<String> keys = Random.build().stream(LengthDistribution.histogram(histogram), 10000).collect(Collectors.toList());
+		assertEquals(10000, keys.size());
+		final long longer = keys.stream().filter(s -> s.length() == 8).count();
+		assertEquals(10000 - longer, keys.stream().filter(s -> s.matches("[A-Za-z0-9]{4}")).count());
+		assertEquals(7500, longer, 300);
+
+		final LengthDistribution uniform = LengthDistribution.uniform(2, 30);
+		for (final IRandomStringGenerator<?> generator : Arrays.asList(Generator.alphanumeric(), Generator.unicode(), Generator.numbers())) {
+			final Set<Integer> lengths = Random.build(generator)
+			                                   .parallelStream(uniform, 20000)
+			                                   .map(value -> value.toString().length())
+			                                   .collect(Collectors.toSet());
+			assertEquals(29, lengths.size());
+		}
+		final Set<String> unique = Random.build().parallelUniqueStream(LengthDistribution.uniform(2, 3), 3000).collect(Collectors.toSet());
+		assertEquals(3000, unique.size());
+		assertEquals(2000, Random.build().uniqueStream(LengthDistribution.zipf(2, 6, 2), 2000).distinct().count());
+	}
+}
@@ -0,0 +1,241 @@
+package org.alindner.tools.common.random.generator;
+
+import org.alindner.tools.common.random.Random;
+import org.alindner.tools.common.random.source.RandomSource;
+import org.alindner.tools.common.random.source.SecureBlockSource;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratorTest {
+	@Test
+	void numbers() {
+		final RandomNumberGenerator generator = new RandomNumberGenerator(new Generator.NumbersPool());
+		for (int length = 1; length <= 60; length++) {
+			for (int i = 0; i < 200; i++) {
+				assertEquals(length, generator.next(length).toString().length());
+			}
+		}
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(18, Long.toString(generator.nextLong(18)).length());
+			assertEquals(9, Integer.toString(generator.nextInt(9)).length());
+			assertTrue(generator.nextLong(1) < 10);
+		}
+		assertThrows(IllegalArgumentException.class, () -> generator.nextLong(19));
+		assertThrows(IllegalArgumentException.class, () -> generator.nextInt(10));
+
+		final RandomNumberGenerator custom = new RandomNumberGenerator("089"::toCharArray);
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(custom.next(6).toString().matches("[89][089]{5}"));
+			assertTrue(Long.toString(custom.nextLong(4)).matches("[89][089]{3}"));
+		}
+	}
+
+	@Test
+	void unicode() {
+		final RandomUnicodeStringGenerator generator     = new RandomUnicodeStringGenerator(new java.util.Random(1));
+		boolean                            supplementary = false;
+		for (int length = 0; length < 200; length++) {
+			final String value = generator.next(length);
+			assertEquals(length, value.length());
+			assertEquals(value, new String(value.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+			supplementary |= value.codePointCount(0, value.length()) < length;
+
+			final String utf8 = generator.nextUtf8(length);
+			assertEquals(length, utf8.getBytes(StandardCharsets.UTF_8).length);
+			assertEquals(utf8, new String(utf8.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+		}
+		assertTrue(supplementary);
+		assertEquals(12, Generator.unicode(RandomSource.xoshiro256(1)).nextUtf8(12).getBytes(StandardCharsets.UTF_8).length);
+	}
+
+	@Test
+	void bytes() {
+		for (final ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(100), ByteBuffer.allocateDirect(100)}) {
+			final IRandomByteGenerator generator = Generator.alphanumericBytes();
+			assertEquals(9, generator.fill(buffer, 10, 20, new byte[]{'\n'}));
+			assertEquals(99, buffer.position());
+			generator.nextInto(buffer, 1);
+			assertThrows(BufferOverflowException.class, () -> generator.nextInto(buffer, 1));
+
+			buffer.flip();
+			final byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			assertTrue(new String(bytes, StandardCharsets.US_ASCII).matches("([A-Za-z0-9]{10}\n){9}[A-Za-z0-9]"));
+		}
+
+		final ByteBuffer buffer = ByteBuffer.allocate(64);
+		assertEquals(4, Generator.bytes("01"::toCharArray).fill(buffer, 16, 10));
+		assertFalse(buffer.hasRemaining());
+		assertThrows(IllegalArgumentException.class, () -> new RandomByteGenerator("a\u00e4"::toCharArray));
+	}
+
+	@Test
+	void nextBatch() {
+		final List<IRandomStringGenerator<?>> generators = Arrays.asList(
+				Generator.alphanumeric(),
+				Generator.numbers(),
+				Generator.integerNumbers(),
+				Generator.unicode(),
+				Generator.randomAccess(1),
+				Generator.permutation(1),
+				Generator.template("x[ab]*"),
+				length -> new String(new char[length]).replace('\0', 'c')
+		);
+		for (final IRandomStringGenerator<?> generator : generators) {
+			for (final int count : new int[]{0, 1, 7, 5000}) {
+				final List<?> batch = generator.nextBatch(12, count);
+				assertEquals(count, batch.size());
+				for (final Object value : batch) {
+					assertEquals(12, value.toString().length());
+				}
+			}
+			assertThrows(IllegalArgumentException.class, () -> generator.nextBatch(12, -1));
+		}
+		final int[] lengths = new int[5000];
+		for (int i = 0; i < lengths.length; i++) {
+			lengths[i] = i % 17;
+		}
+		final List<String> mixed = Generator.alphanumeric().nextBatch(lengths);
+		for (int i = 0; i < lengths.length; i++) {
+			assertEquals(lengths[i], mixed.get(i).length());
+		}
+		assertEquals(3, Generator.unicode().nextBatch(new int[]{3}).get(0).length());
+		assertEquals(3000, new HashSet<>(Generator.alphanumeric().nextBatch(3, 3000)).size(), 50);
+
+		final IRandomStringGenerator<CharSequence> sequences = length -> length % 2 == 0 ? "c" : new StringBuilder("c");
+		assertEquals(2, sequences.nextBatch(new int[]{1, 2}).size());
+		assertEquals(Arrays.asList(null, null), ((IRandomStringGenerator<String>) length -> null).nextBatch(1, 2));
+		final IRandomStringGenerator<String> failing = length -> {
+			throw new IllegalStateException();
+		};
+		assertTrue(failing.nextBatch(1, 0).isEmpty());
+		assertTrue(failing.nextBatch(new int[0]).isEmpty());
+	}
+
+	@Test
+	void rebind() {
+		final java.util.Random replacement = new java.util.Random();
+		final java.util.Random plain       = new java.util.Random();
+		final java.util.Random secure      = new SecureRandom();
+		final java.util.Random perThread   = RandomSource.secure().asRandom();
+		final java.util.Random block       = new SecureBlockSource().asRandom();
+		assertSame(replacement, Generator.rebind(plain, replacement));
+		assertSame(replacement, Generator.rebind(RandomSource.xoshiro256(1).asRandom(), replacement));
+		assertSame(secure, Generator.rebind(secure, replacement));
+		assertSame(perThread, Generator.rebind(perThread, replacement));
+		final java.util.Random split = Generator.rebind(block, replacement);
+		assertNotSame(block, split);
+		assertNotSame(replacement, split);
+		assertTrue(RandomSource.of(split) instanceof SecureBlockSource);
+	}
+
+	@Test
+	void template() {
+		final TemplateStringGenerator uuid = Generator.template("[a-f0-9]{8}-[A-Z]{4}");
+		assertEquals(13, uuid.getFixedLength());
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(uuid.next().matches("[a-f0-9]{8}-[A-Z]{4}"));
+		}
+
+		final TemplateStringGenerator prefixed = new TemplateStringGenerator("id\\-a[\\d_x-z]*", new java.util.Random(1));
+		for (int length = 4; length < 100; length++) {
+			assertTrue(prefixed.next(length).matches("id-a[0-9_xyz]{" + (length - 4) + "}"));
+		}
+		assertThrows(IllegalArgumentException.class, () -> prefixed.next(3));
+
+		final char[] target = new char[12];
+		for (int i = 0; i < 1000; i++) {
+			final int length = Generator.template("x\\w{2,10}").nextInto(target, 1, 0);
+			assertTrue(length >= 3 && length <= 11);
+			assertTrue(new String(target, 1, length).matches("x\\w{2,10}"));
+		}
+
+		for (final String invalid : new String[]{"[a-", "[]", "[z-a]", "a{2", "a{3,1}", "*", "a*b*", "\\"}) {
+			assertThrows(IllegalArgumentException.class, () -> new TemplateStringGenerator(invalid));
+		}
+	}
+
+	@Test
+	void charPool() {
+		assertEquals(62, CharPool.ALPHANUMERIC.size());
+		assertEquals(CharPool.ALPHANUMERIC.size() + 27, CharPool.ALPHANUMERIC_SIGNS.size());
+		assertEquals(new String(new Generator.AlphaNumericPool().getCharacters()), CharPool.ALPHANUMERIC.toString());
+		assertSame(CharPool.ALPHANUMERIC, CharPool.of(new Generator.AlphaNumericPool()));
+		assertSame(CharPool.DIGITS, CharPool.of("01234567890123"));
+		assertSame(CharPool.WORD, CharPool.UPPER_CASE.union(CharPool.LOWER_CASE).union(CharPool.range('0', '9')).union(CharPool.of("_")));
+		assertSame(CharPool.ALPHANUMERIC, ((IPooledGenerator) Generator.alphanumeric()).getPool());
+
+		final CharPool hex = CharPool.DIGITS.union(CharPool.range('a', 'f'));
+		assertEquals("0123456789abcdef", hex.toString());
+		assertEquals("abcdef", hex.difference(CharPool.DIGITS).toString());
+		assertSame(hex, hex.difference(CharPool.UPPER_CASE));
+		assertTrue(hex.contains('c'));
+		assertFalse(hex.contains('g'));
+		assertTrue(hex.isAscii());
+		assertFalse(CharPool.of("a\u00e4").isAscii());
+		assertThrows(IllegalArgumentException.class, () -> CharPool.of(""));
+		assertThrows(IllegalArgumentException.class, () -> CharPool.range('z', 'a'));
+		assertThrows(IllegalArgumentException.class, () -> hex.difference(hex));
+
+		final char[] copy = hex.getCharacters();
+		copy[0] = 'x';
+		assertEquals('0', hex.getCharacters()[0]);
+		for (final char c : new RandomStringGenerator(CharPool.of("aab"), new java.util.Random(1)).next(1000).toCharArray()) {
+			assertTrue(c == 'a' || c == 'b');
+		}
+	}
+
+	@Test
+	void weighted() {
+		final AliasTable       table  = new AliasTable(1, 0, 3, 6);
+		final int[]            counts = new int[table.size()];
+		final java.util.Random random = new java.util.Random(1);
+		for (int i = 0; i < 100000; i++) {
+			counts[table.next(random)]++;
+		}
+		assertEquals(10000, counts[0], 500);
+		assertEquals(0, counts[1]);
+		assertEquals(30000, counts[2], 1000);
+		assertEquals(60000, counts[3], 1000);
+		assertEquals(0.6, table.probability(3), 1e-9);
+		for (final double[] invalid : new double[][]{{}, {0, 0}, {1, -1}, {1, Double.NaN}, {Double.POSITIVE_INFINITY}}) {
+			assertThrows(IllegalArgumentException.class, () -> new AliasTable(invalid));
+		}
+
+		final WeightedCharPool pool = WeightedCharPool.of("abca", 1, 1, 2, 4);
+		assertEquals("abc", new String(pool.getCharacters()));
+		assertEquals(0.625, pool.probability('a'), 1e-9);
+		assertEquals(0, pool.probability('z'));
+		assertThrows(IllegalArgumentException.class, () -> WeightedCharPool.of("ab", 1));
+
+		final String text  = Generator.weighted(WeightedCharPool.ENGLISH, RandomSource.xoshiro256(1)).next(200000);
+		final int[]  chars = new int[128];
+		for (final char c : text.toCharArray()) {
+			chars[c]++;
+		}
+		for (char c = 'a'; c <= 'z'; c++) {
+			assertEquals(WeightedCharPool.ENGLISH.probability(c) * text.length(), chars[c], 0.1 * text.length() * WeightedCharPool.ENGLISH.probability(c) + 50);
+		}
+		assertSame(WeightedCharPool.ENGLISH, ((IPooledGenerator) Generator.weighted(WeightedCharPool.ENGLISH)).getPool());
+		assertTrue(Generator.weighted(pool).nextBatch(5, 100).get(99).matches("[abc]{5}"));
+
+		// generators which draw uniformly reject the weights instead of dropping them
+		assertThrows(IllegalArgumentException.class, () -> Generator.bytes(WeightedCharPool.ENGLISH));
+		assertThrows(IllegalArgumentException.class, () -> new RandomNumberGenerator(pool));
+		assertThrows(IllegalArgumentException.class, () -> Generator.randomAccess(WeightedCharPool.ENGLISH, 1));
+		assertThrows(IllegalArgumentException.class, () -> Generator.permutation(WeightedCharPool.ENGLISH, 1));
+		assertThrows(
+				IllegalArgumentException.class,
+				() -> Random.build(Generator.weighted(WeightedCharPool.ENGLISH)).partitionedUniqueStream(5, 10, 1, 0, 2)
+		);
+	}
+}
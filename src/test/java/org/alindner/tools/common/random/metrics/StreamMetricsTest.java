@@ -0,0 +1,54 @@
+package org.alindner.tools.common.random.metrics;
+
+import org.alindner.tools.common.random.Random;
+import org.alindner.tools.common.random.generator.RandomStringGenerator;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamMetricsTest {
+	@Test
+	void histogram() {
+		for (int bucket = 0; bucket < LatencyHistogram.BUCKETS; bucket++) {
+			assertEquals(bucket, LatencyHistogram.bucket(LatencyHistogram.lowerBound(bucket)));
+			assertEquals(bucket, LatencyHistogram.bucket(LatencyHistogram.upperBound(bucket)));
+		}
+		assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket(Long.MAX_VALUE));
+	}
+
+	@Test
+	void counters() {
+		final StreamMetrics               metrics = new StreamMetrics();
+		final Random.RandomStream<String> stream  = Random.build(new RandomStringGenerator("01"::toCharArray)).instrumented(metrics);
+
+		assertEquals(100, stream.stream(10, 100, s -> s.startsWith("1")).count());
+		MetricsSnapshot snapshot = metrics.snapshot();
+		assertTrue(snapshot.getRejected() > 0);
+		assertEquals(100 + snapshot.getRejected(), snapshot.getGenerated());
+		assertEquals(0, snapshot.getDuplicates());
+		assertTrue(snapshot.percentileNanos(50) <= snapshot.percentileNanos(99));
+		assertTrue(snapshot.percentileNanos(100) <= snapshot.getMaxNanos());
+
+		metrics.reset();
+		assertEquals(500, stream.uniqueStream(10, 500).distinct().count());
+		snapshot = metrics.snapshot();
+		assertTrue(snapshot.getDuplicates() > 0);
+		assertEquals(500 + snapshot.getDuplicates(), snapshot.getGenerated());
+	}
+
+	@Test
+	void jmx() throws Exception {
+		final StreamMetrics metrics = new StreamMetrics();
+		final ObjectName    name    = metrics.register("test");
+		assertThrows(IllegalStateException.class, () -> new StreamMetrics().register("test"));
+
+		assertEquals(5, Random.build().instrumented(metrics).stream(10, 5).collect(Collectors.toList()).size());
+		assertEquals(5L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Generated"));
+		metrics.unregister();
+		assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+	}
+}
@@ -0,0 +1,160 @@
+package org.alindner.tools.common.random.source;
+
+import org.alindner.tools.common.random.Random;
+import org.alindner.tools.common.random.generator.Generator;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class RandomSourceTest {
+	private static final List<LongFunction<RandomSource>> SOURCES = Arrays.asList(
+			RandomSource::xoshiro256,
+			RandomSource::splitMix64,
+			RandomSource::l64x128,
+			seed -> RandomSource.of(new java.util.Random(seed))
+	);
+
+	@Test
+	void seeded() {
+		for (final LongFunction<RandomSource> factory : RandomSourceTest.SOURCES) {
+			final RandomSource first  = factory.apply(42);
+			final RandomSource second = factory.apply(42);
+			final RandomSource other  = factory.apply(43);
+			boolean            differ = false;
+			for (int i = 0; i < 100; i++) {
+				final long value = first.nextLong();
+				assertEquals(value, second.nextLong());
+				differ |= value != other.nextLong();
+			}
+			assertTrue(differ);
+
+			final RandomSource split = first.split();
+			differ = false;
+			for (int i = 0; i < 100; i++) {
+				differ |= first.nextLong() != split.nextLong();
+			}
+			assertTrue(differ);
+		}
+
+		final SplittableRandom reference = new SplittableRandom(7);
+		final RandomSource     splitMix  = RandomSource.splitMix64(7);
+		for (int i = 0; i < 100; i++) {
+			assertEquals(reference.nextLong(), splitMix.nextLong());
+		}
+	}
+
+	@Test
+	void nextInt() {
+		for (final LongFunction<RandomSource> factory : RandomSourceTest.SOURCES) {
+			final RandomSource source = factory.apply(1);
+			final int[]        counts = new int[7];
+			for (int i = 0; i < 70000; i++) {
+				counts[source.nextInt(7)]++;
+				final double value = source.nextDouble();
+				assertTrue(value >= 0 && value < 1);
+			}
+			for (final int count : counts) {
+				assertEquals(10000, count, 500);
+			}
+			assertThrows(IllegalArgumentException.class, () -> source.nextInt(0));
+		}
+	}
+
+	@Test
+	void generators() {
+		final List<String> first  = Random.build(Generator.alphanumeric(RandomSource.xoshiro256(5))).stream(20, 100).collect(Collectors.toList());
+		final List<String> second = Random.build(Generator.alphanumeric(RandomSource.xoshiro256(5))).stream(20, 100).collect(Collectors.toList());
+		assertEquals(first, second);
+		first.forEach(s -> assertTrue(s.matches("[A-Za-z0-9]{20}")));
+
+		assertEquals(18, Generator.integerNumbers(RandomSource.l64x128(1)).next(18).toString().length());
+		assertEquals(10, Generator.unicode(RandomSource.splitMix64(1)).next(10).length());
+		assertEquals(10, Generator.numbers(RandomSource.threadLocal()).next(10).length());
+
+		final SecureRandom secure = new SecureRandom();
+		assertSame(secure, RandomSource.of(secure).asRandom());
+		final java.util.Random secureSplit = RandomSource.of(secure).split().asRandom();
+		assertNotSame(secure, secureSplit);
+		assertTrue(secureSplit instanceof SecureRandom);
+		assertSame(RandomSource.threadLocal(), RandomSource.of(ThreadLocalRandom.current()).split());
+		final RandomSource source = RandomSource.xoshiro256(3);
+		assertSame(source, RandomSource.of(source.asRandom()));
+	}
+
+	@Test
+	void secure() {
+		final SecureBlockSource source = new SecureBlockSource(64, 128);
+		final long[]            values = new long[100];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = source.nextLong();
+		}
+		assertEquals(100, Arrays.stream(values).distinct().count());
+		assertEquals(6, source.getReseeds());
+		assertThrows(IllegalArgumentException.class, () -> new SecureBlockSource(12, 128));
+
+		final List<String> keys = Random.build(Generator.secureAlphanumeric())
+		                                .parallelUniqueStream(32, 10000)
+		                                .collect(Collectors.toList());
+		assertEquals(10000, keys.size());
+		keys.forEach(s -> assertTrue(s.matches("[A-Za-z0-9]{32}")));
+		assertTrue(Generator.secureNumbers().next(6).matches("[0-9]{6}"));
+	}
+
+	@Test
+	void platform() {
+		final SplittableRandom reference = new SplittableRandom(9);
+		final RandomSource     adapted   = RandomSource.ofGenerator(new SplittableRandom(9));
+		for (int i = 0; i < 100; i++) {
+			assertEquals(reference.nextLong(), adapted.nextLong());
+		}
+		final RandomSource source = RandomSource.xoshiro256(1);
+		assertSame(source, RandomSource.ofGenerator(source));
+		assertTrue(RandomSource.ofGenerator(new java.util.Random(1)).split().nextDouble() < 1);
+		assertThrows(IllegalArgumentException.class, () -> RandomSource.ofGenerator("random"));
+		assertTrue(Platform.version() >= 8);
+
+		final List<String> keys = Random.build()
+		                                .splitting(RandomSource.ofGenerator(new SplittableRandom(3)))
+		                                .parallelStream(16, 5000)
+		                                .collect(Collectors.toList());
+		assertEquals(5000, keys.size());
+		assertEquals(5000, keys.stream().distinct().count());
+	}
+
+	/**
+	 * loads the classes the way a multi release jar does on the running JDK: the Java 17 versions before the base ones
+	 */
+	@Test
+	void multiRelease() throws Exception {
+		final String version = System.getProperty("java.specification.version");
+		assumeTrue(!version.startsWith("1.") && Integer.parseInt(version) >= 17, "requires JDK 17");
+		final Path classes   = Paths.get(Platform.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		final Path versioned = classes.resolve("META-INF/versions/17");
+		assertTrue(Files.isDirectory(versioned), "the multi-release profile compiled no Java 17 classes");
+		try (final URLClassLoader loader = new URLClassLoader(new URL[]{versioned.toUri().toURL(), classes.toUri().toURL()}, null)) {
+			final Class<?> platform = loader.loadClass(Platform.class.getName());
+			assertEquals(17, platform.getMethod("version").invoke(null));
+			final Object generator = Class.forName("java.util.random.RandomGenerator")
+			                              .getMethod("of", String.class)
+			                              .invoke(null, "L64X128MixRandom");
+			final Class<?> random = loader.loadClass(RandomSource.class.getName());
+			final Object   split  = random.getMethod("split").invoke(platform.getMethod("adapt", Object.class).invoke(null, generator));
+			final double   value  = (double) random.getMethod("nextDouble").invoke(split);
+			assertTrue(value >= 0 && value < 1);
+		}
+	}
+}
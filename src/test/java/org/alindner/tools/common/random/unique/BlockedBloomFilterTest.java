@@ -0,0 +1,40 @@
+package org.alindner.tools.common.random.unique;
+
+import org.alindner.tools.common.random.Random;
+import org.alindner.tools.common.random.generator.RandomStringGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockedBloomFilterTest {
+	@Test
+	void add() {
+		final BlockedBloomFilter filter = new BlockedBloomFilter(100000, 0.01);
+		assertTrue(filter.bits() / 100000.0 < 14);
+		final List<String> tokens = Random.build().parallelUniqueStream(16, 100000, filter).collect(Collectors.toList());
+		assertEquals(100000, new HashSet<>(tokens).size());
+		tokens.forEach(token -> assertTrue(filter.mightContain(token)));
+		assertFalse(filter.add(tokens.get(0)));
+		assertTrue(filter.estimatedFill() > 0.3 && filter.estimatedFill() < 0.7);
+		assertEquals(0.01, filter.estimatedFalsePositiveRate(), 0.01);
+
+		final long falsePositives = Random.build().stream(16, 100000).filter(filter::mightContain).count();
+		assertEquals(1000, falsePositives, 600);
+		assertThrows(IllegalArgumentException.class, () -> new BlockedBloomFilter(10, 1));
+
+		final BlockedBloomFilter racy = new BlockedBloomFilter(1000, 0.01);
+		final List<String>       same = Collections.nCopies(100000, "token");
+		assertEquals(1, same.parallelStream().filter(racy::add).count());
+
+		assertEquals(50000, Random.build().uniqueStream(12, 50000, 0.001).distinct().count());
+		assertEquals(50000, Random.build().parallelUniqueStream(12, 50000, 0.001).distinct().count());
+		final Set<String> small = Random.build(new RandomStringGenerator("ab"::toCharArray)).uniqueStream(12, 1000, 0.01).collect(Collectors.toSet());
+		assertEquals(1000, small.size());
+	}
+}
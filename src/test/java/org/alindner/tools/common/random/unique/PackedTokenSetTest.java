@@ -0,0 +1,88 @@
+package org.alindner.tools.common.random.unique;
+
+import org.alindner.tools.common.random.Random;
+import org.alindner.tools.common.random.generator.Generator;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedTokenSetTest {
+	private final char[] alphanumeric = new Generator.AlphaNumericPool().getCharacters();
+
+	@Test
+	void codec() {
+		assertEquals(1, new TokenCodec(this.alphanumeric, 10).words());
+		assertEquals(2, new TokenCodec(this.alphanumeric, 12).words());
+		assertTrue(new TokenCodec(this.alphanumeric, 20).isExact());
+		assertFalse(new TokenCodec(this.alphanumeric, 21).isExact());
+
+		final TokenCodec codec = new TokenCodec(this.alphanumeric, 12);
+		final long[]     a     = new long[2];
+		final long[]     b     = new long[2];
+		codec.encode("AAAAAAAAAAAA", a);
+		assertArrayEquals(new long[]{0, 0}, a);
+		codec.encode("BAAAAAAAAAAA", a);
+		codec.encode("AAAAAAAAAABA", b);
+		assertArrayEquals(new long[]{1, 0}, a);
+		assertArrayEquals(new long[]{0, 1}, b);
+		codec.encode("AAAAAAAAAAA!", a);
+		assertTrue(a[0] < 0);
+	}
+
+	@Test
+	void add() {
+		for (final PackedTokenSet set : new PackedTokenSet[]{
+				PackedTokenSet.onHeap(this.alphanumeric, 12, 0),
+				PackedTokenSet.offHeap(this.alphanumeric, 12, 100),
+				PackedTokenSet.onHeap(this.alphanumeric, 5, 10),
+				PackedTokenSet.onHeap(this.alphanumeric, 40, 10)
+		}) {
+			assertTrue(set.add("AAAAAAAAAAAA"));
+			assertFalse(set.add("AAAAAAAAAAAA"));
+			assertTrue(set.add("AAAAAAAAAAA!"));
+			assertFalse(set.add("AAAAAAAAAAA!"));
+			final Set<String> tokens = Random.build(Generator.alphanumeric())
+			                                 .stream(12, 50000)
+			                                 .collect(Collectors.toSet());
+			tokens.forEach(token -> assertTrue(set.add(token)));
+			tokens.forEach(token -> assertFalse(set.add(token)));
+			assertEquals(tokens.size() + 2, set.size());
+		}
+	}
+
+	@Test
+	void uniqueStream() {
+		final PackedTokenSet store = PackedTokenSet.offHeap(this.alphanumeric, 3, 100000);
+		final Set<String> tokens = Random.build(Generator.alphanumeric())
+		                                 .parallelUniqueStream(3, 100000, store)
+		                                 .collect(Collectors.toSet());
+		assertEquals(100000, tokens.size());
+		assertTrue(store.size() >= 100000);
+		assertTrue(store.capacityBytes() <= 100000L * 8 * 4);
+
+		assertEquals(
+				50000,
+				Random.build(Generator.alphanumeric())
+				      .parallelUniqueStream(3, 50000)
+				      .collect(Collectors.toSet())
+				      .size()
+		);
+
+		final PackedTokenSet fingerprints = PackedTokenSet.fingerprinting(10);
+		assertTrue(fingerprints.add("\u00e4\u00f6\u00fc"));
+		assertTrue(fingerprints.add(new StringBuilder("a much longer token than any pool packs")));
+		assertFalse(fingerprints.add("a much longer token than any pool packs"));
+		assertFalse(fingerprints.add("\u00e4\u00f6\u00fc"));
+		assertEquals(2, fingerprints.size());
+		// templates are not pooled, their tokens are fingerprinted; "a[ab]*" has 32 tokens of length 6
+		final List<String> templated = Random.build(Generator.template("a[ab]*"))
+		                                     .uniqueStream(6, 32)
+		                                     .collect(Collectors.toList());
+		assertEquals(32, new HashSet<>(templated).size());
+	}
+}
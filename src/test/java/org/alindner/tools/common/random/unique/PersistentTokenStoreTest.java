@@ -0,0 +1,46 @@
+package org.alindner.tools.common.random.unique;
+
+import org.alindner.tools.common.random.Random;
+import org.alindner.tools.common.random.generator.RandomStringGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentTokenStoreTest {
+	@Test
+	void reopen(@TempDir final Path dir) throws IOException {
+		final List<String> issued;
+		final long         recorded;
+		try (final PersistentTokenStore store = PersistentTokenStore.open(dir)) {
+			issued = Random.build().parallelUniqueStream(12, 100000, store).collect(Collectors.toList());
+			assertEquals(100000, new HashSet<>(issued).size());
+			recorded = store.size();
+			assertTrue(recorded >= 100000);
+			assertFalse(store.add(issued.get(0)));
+			store.checkpoint();
+			assertThrows(IllegalStateException.class, () -> PersistentTokenStore.open(dir));
+		}
+
+		try (final PersistentTokenStore store = PersistentTokenStore.open(dir)) {
+			assertEquals(recorded, store.size());
+			issued.forEach(token -> assertTrue(store.contains(token)));
+			assertFalse(store.add(issued.get(99999)));
+			final List<String> more = Random.build(new RandomStringGenerator("ab"::toCharArray))
+			                                .uniqueStream(10, 1024, store)
+			                                .collect(Collectors.toList());
+			assertEquals(1024, new HashSet<>(more).size());
+			assertEquals(recorded + 1024, store.size());
+		}
+
+		Files.write(dir.resolve("shard-00.idx"), new byte[]{1, 2, 3});
+		assertThrows(IOException.class, () -> PersistentTokenStore.open(dir));
+	}
+}